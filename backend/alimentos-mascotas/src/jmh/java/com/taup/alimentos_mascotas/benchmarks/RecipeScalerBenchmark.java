@@ -0,0 +1,72 @@
+package com.taup.alimentos_mascotas.benchmarks;
+
+import com.taup.alimentos_mascotas.Utils.RecipeScaler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput del escalado de recetas para recetas de 5 a 500 ingredientes.
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecipeScalerBenchmark {
+
+	@Param({"5", "50", "500"})
+	private int ingredientCount;
+
+	private Map<String, Number> ingredientsWithQuantity;
+	private Map<String, Number> estimated;
+	private Map<String, Number> used;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		ingredientsWithQuantity = new HashMap<>();
+		used = new HashMap<>();
+
+		// Mezcla de tipos como los que devuelve Mongo: Integer, Double y Decimal128 -> BigDecimal
+		for (int i = 0; i < ingredientCount; i++) {
+			String ingredientId = "ingredient-" + i;
+			Number quantity = switch (i % 3) {
+				case 0 -> random.nextInt(1000) + 1;
+				case 1 -> random.nextDouble() * 10;
+				default -> BigDecimal.valueOf(random.nextInt(100_000), 3);
+			};
+			ingredientsWithQuantity.put(ingredientId, quantity);
+			used.put(ingredientId, random.nextDouble() * 100);
+		}
+
+		estimated = RecipeScaler.scale(ingredientsWithQuantity, 100, 3);
+	}
+
+	@Benchmark
+	public Map<String, Number> scale() {
+		// 100 / 3 no es exacto: cubre el caso que antes lanzaba ArithmeticException
+		return RecipeScaler.scale(ingredientsWithQuantity, 100, 3);
+	}
+
+	@Benchmark
+	public Map<String, Number> differences() {
+		return RecipeScaler.differences(estimated, used);
+	}
+}
@@ -23,14 +23,15 @@ import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
 
 import com.taup.alimentos_mascotas.Auth.CustomReactiveAuthenticationManager;
 import com.taup.alimentos_mascotas.Auth.Filters.JwtAuthenticationWebFilter;
+import com.taup.alimentos_mascotas.Auth.Services.PasswordHashingService;
 
 @EnableWebFluxSecurity
 @Configuration
 public class SpringSecurityConfig {
 	@Bean
 	public CustomReactiveAuthenticationManager customReactiveAuthenticationManager(
-			ReactiveUserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
-		return new CustomReactiveAuthenticationManager(userDetailsService, passwordEncoder);
+			ReactiveUserDetailsService userDetailsService, PasswordHashingService passwordHashing) {
+		return new CustomReactiveAuthenticationManager(userDetailsService, passwordHashing);
 	}
 
 	@Bean
@@ -39,7 +40,8 @@ public class SpringSecurityConfig {
 		config.setAllowedOrigins(List.of("http://localhost:3000", "https://alimentos-mascotas.netlify.app", 
 			"https://www.barkerpet.com.ar", "https://barkerpet.com.ar"));
 		config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
-		config.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+		config.setAllowedHeaders(List.of("Authorization", "Content-Type", "If-None-Match", "If-Modified-Since"));
+		config.setExposedHeaders(List.of("ETag", "Last-Modified"));
 		config.setAllowCredentials(true);
 
 		UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -67,7 +69,7 @@ public class SpringSecurityConfig {
 					//restrictEndpoints(exchanges, HttpMethod.POST, );
 
 					adminEndpoints(exchanges, "/api/caja**", "/api/proveedores/**", 
-						"/api/ventas/**", "/api/ingredientes/**", "/api/ordenes-trabajo/**", "/api/recetas/**");
+						"/api/ventas/**", "/api/ingredientes/**", "/api/ordenes-trabajo/**", "/api/recetas/**", "/api/stock/**", "/api/eliminaciones/**", "/api/exportar/**");
 
 					authenticateEndpoints(exchanges, "/api/ordenes-compra/**", "/api/resenas/guardar", "/api/resenas/editar/{reviewId}");
 
@@ -5,7 +5,8 @@ import org.springframework.security.authentication.ReactiveAuthenticationManager
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.taup.alimentos_mascotas.Auth.Services.PasswordHashingService;
+
 import reactor.core.publisher.Mono;
 
 public class CustomReactiveAuthenticationManager implements ReactiveAuthenticationManager {
@@ -13,26 +14,26 @@ public class CustomReactiveAuthenticationManager implements ReactiveAuthenticati
 	@Autowired
 	private final ReactiveUserDetailsService userDetailsService;
 	@Autowired
-	private final PasswordEncoder passwordEncoder;
+	private final PasswordHashingService passwordHashing;
 
 	public CustomReactiveAuthenticationManager(ReactiveUserDetailsService userDetailsService,
-	                                           PasswordEncoder passwordEncoder) {
+	                                           PasswordHashingService passwordHashing) {
 		this.userDetailsService = userDetailsService;
-		this.passwordEncoder = passwordEncoder;
+		this.passwordHashing = passwordHashing;
 	}
 
 	@Override
 	public Mono<Authentication> authenticate(Authentication authentication) {
 
 		return userDetailsService.findByUsername(authentication.getName())
-				.flatMap(userDetails -> {
-
-					if (passwordEncoder.matches(authentication.getCredentials().toString(),
-							userDetails.getPassword())) {
-						return Mono.just(new UsernamePasswordAuthenticationToken(userDetails,
-								authentication.getCredentials(), userDetails.getAuthorities()));
-					}
-					return Mono.empty();
-				});
+				.flatMap(userDetails -> passwordHashing.matches(authentication.getCredentials().toString(),
+								userDetails.getPassword())
+						.flatMap(matches -> {
+							if (matches) {
+								return Mono.just(new UsernamePasswordAuthenticationToken(userDetails,
+										authentication.getCredentials(), userDetails.getAuthorities()));
+							}
+							return Mono.empty();
+						}));
 	}
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.taup.alimentos_mascotas.Auth.Filters;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.taup.alimentos_mascotas.Services.Profiles.CurrentUserContext;
+
+import reactor.core.publisher.Mono;
+
+@Component
+public class CurrentUserWebFilter implements WebFilter {
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		// Cada request arranca con su propio registro de usuarios resueltos
+		return chain.filter(exchange)
+				.contextWrite(CurrentUserContext::attach);
+	}
+
+}
@@ -1,13 +1,9 @@
 package com.taup.alimentos_mascotas.Auth.Filters;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextImpl;
@@ -18,10 +14,8 @@ import org.springframework.web.server.WebFilterChain;
 
 import com.taup.alimentos_mascotas.Auth.Utils.JwtUtil;
 
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 
-import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import reactor.core.publisher.Mono;
 
@@ -42,16 +36,8 @@ public class JwtAuthenticationWebFilter implements WebFilter {
 			String token = authHeader.substring(7);
 
 			try {
-				Claims claims = jwtUtil.validateToken(token);
-				String username = claims.getSubject();
-				String[] roles = jwtUtil.getRolesFromToken(token);
-
-				List<SimpleGrantedAuthority> authorities = Arrays.stream(roles)
-						.map(SimpleGrantedAuthority::new)
-						.collect(Collectors.toList());
-
-				Authentication authentication = new UsernamePasswordAuthenticationToken(
-						username, null, authorities);
+				// Una sola validación por token: usuario y roles salen del mismo parseo (o de la caché)
+				Authentication authentication = jwtUtil.parse(token).toAuthentication();
 
 				// Establece el contexto de seguridad reactivo
 				SecurityContext securityContext = new SecurityContextImpl(authentication);
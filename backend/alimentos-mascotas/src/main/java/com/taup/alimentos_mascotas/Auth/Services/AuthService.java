@@ -7,7 +7,6 @@ import java.util.Set;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.taup.alimentos_mascotas.Auth.Utils.JwtUtil;
@@ -27,7 +26,7 @@ import reactor.core.publisher.Mono;
  public class AuthService {
 
 	private final UserRepository userRepository;
-	private final PasswordEncoder passwordEncoder;
+	private final PasswordHashingService passwordHashing;
 	private final JwtUtil jwtUtil;
 	private final UserService userService;
     
@@ -37,7 +36,6 @@ import reactor.core.publisher.Mono;
             .flatMap(name -> {
                 User user = new User();
                 user.setEmail(userDetails.getEmail());
-                user.setPassword(passwordEncoder.encode(userDetails.getPassword()));
                 user.setName(userDetails.getName());
                 user.setSurname(userDetails.getSurname());
                 user.setPhone(userDetails.getPhone());
@@ -61,9 +59,14 @@ import reactor.core.publisher.Mono;
                     }
                 }
 
-                return userRepository.save(user);
+                // El hash corre en el pool de contraseñas, no en el event loop
+                return passwordHashing.encode(userDetails.getPassword())
+                    .flatMap(hash -> {
+                        user.setPassword(hash);
+                        return userRepository.save(user);
+                    });
             })
-            .onErrorMap(e -> new RuntimeException("Error al registrar el usuario", e));
+            .onErrorMap(e -> !(e instanceof ResponseStatusException), e -> new RuntimeException("Error al registrar el usuario", e));
     }
 
 
@@ -73,21 +76,28 @@ import reactor.core.publisher.Mono;
             .flatMap(name -> userRepository.findByEmail(username)
                 .switchIfEmpty(Mono.error(new RuntimeException("Usuario no encontrado")))
                 .flatMap(existingUser -> {
-                    existingUser.setEmail(userDetails.getEmail() != null && !userDetails.getEmail().isEmpty() ? userDetails.getEmail() : existingUser.getEmail());
-                    existingUser.setPassword(userDetails.getPassword() != null && !userDetails.getPassword().isEmpty() ? passwordEncoder.encode(userDetails.getPassword()) : existingUser.getPassword());
-                    existingUser.setName(userDetails.getName() != null && !userDetails.getName().isEmpty() ? userDetails.getName() : existingUser.getName());
-                    existingUser.setSurname(userDetails.getSurname() != null && !userDetails.getSurname().isEmpty() ? userDetails.getSurname() : existingUser.getSurname());
-                    existingUser.setDni(userDetails.getDni() != null && !userDetails.getDni().isEmpty() ? userDetails.getDni() : existingUser.getDni());
-                    existingUser.setPhone(userDetails.getPhone() != null && !userDetails.getPhone().isEmpty() ? userDetails.getPhone() : existingUser.getPhone());
-    
-                    // Auditoría
-                    existingUser.setModifiedBy(name.getName() + " " + name.getSurname());
-                    existingUser.setUpdatedAt(LocalDateTime.now());
-    
-                    return userRepository.save(existingUser);
+                    // Solo se vuelve a hashear si se envió una contraseña nueva
+                    Mono<String> password = userDetails.getPassword() != null && !userDetails.getPassword().isEmpty()
+                        ? passwordHashing.encode(userDetails.getPassword())
+                        : Mono.just(existingUser.getPassword());
+
+                    return password.flatMap(hash -> {
+                        existingUser.setEmail(userDetails.getEmail() != null && !userDetails.getEmail().isEmpty() ? userDetails.getEmail() : existingUser.getEmail());
+                        existingUser.setPassword(hash);
+                        existingUser.setName(userDetails.getName() != null && !userDetails.getName().isEmpty() ? userDetails.getName() : existingUser.getName());
+                        existingUser.setSurname(userDetails.getSurname() != null && !userDetails.getSurname().isEmpty() ? userDetails.getSurname() : existingUser.getSurname());
+                        existingUser.setDni(userDetails.getDni() != null && !userDetails.getDni().isEmpty() ? userDetails.getDni() : existingUser.getDni());
+                        existingUser.setPhone(userDetails.getPhone() != null && !userDetails.getPhone().isEmpty() ? userDetails.getPhone() : existingUser.getPhone());
+
+                        // Auditoría
+                        existingUser.setModifiedBy(name.getName() + " " + name.getSurname());
+                        existingUser.setUpdatedAt(LocalDateTime.now());
+
+                        return userRepository.save(existingUser);
+                    });
                 })
             )
-            .onErrorMap(e -> new RuntimeException("Error al actualizar el perfil del usuario", e));
+            .onErrorMap(e -> !(e instanceof ResponseStatusException), e -> new RuntimeException("Error al actualizar el perfil del usuario", e));
     }
 
     // Métodos para actualizar diferentes tipos de usuarios
@@ -102,19 +112,22 @@ import reactor.core.publisher.Mono;
                     if (isTargetAdmin && !isRequesterAdmin) {
                         return Mono.error(new RuntimeException("No tienes permisos para editar un usuario administrador"));
                     }
-                    existingUser.setEmail(userDetails.getEmail());
-                    existingUser.setPassword(passwordEncoder.encode(userDetails.getPassword()));
-                    existingUser.setName(userDetails.getName());
-                    existingUser.setSurname(userDetails.getSurname());
-                    existingUser.setDni(userDetails.getDni());
-                    existingUser.setRoles(userDetails.getRoles());
-                    existingUser.setPhone(userDetails.getPhone());
-                    existingUser.setModifiedBy(name.getName() + " " + name.getSurname());
-                    existingUser.setUpdatedAt(LocalDateTime.now());
-                    return userRepository.save(existingUser);
+                    return passwordHashing.encode(userDetails.getPassword())
+                        .flatMap(hash -> {
+                            existingUser.setEmail(userDetails.getEmail());
+                            existingUser.setPassword(hash);
+                            existingUser.setName(userDetails.getName());
+                            existingUser.setSurname(userDetails.getSurname());
+                            existingUser.setDni(userDetails.getDni());
+                            existingUser.setRoles(userDetails.getRoles());
+                            existingUser.setPhone(userDetails.getPhone());
+                            existingUser.setModifiedBy(name.getName() + " " + name.getSurname());
+                            existingUser.setUpdatedAt(LocalDateTime.now());
+                            return userRepository.save(existingUser);
+                        });
                 })
             )
-            .onErrorMap(e -> new RuntimeException("Error al actualizar el usuario", e));
+            .onErrorMap(e -> !(e instanceof ResponseStatusException), e -> new RuntimeException("Error al actualizar el usuario", e));
     }
 
     // Métodos para eliminar diferentes tipos de usuarios
@@ -131,22 +144,23 @@ import reactor.core.publisher.Mono;
     }
 
     public Mono<UserCredentialsDTO> authenticateUser(User user, String username, String password) {
-        if (passwordEncoder.matches(password, user.getPassword())) {
-            String token = jwtUtil.generateToken(user.getEmail(),
-                    user.getRoles().toArray(new String[0]));
-            return userService.getFullName(username)
-                    .flatMap(name -> {
-                        UserCredentialsDTO credentialsDTO = new UserCredentialsDTO();
-                        credentialsDTO.setId(user.getId());
-                        credentialsDTO.setToken(token);
-                        credentialsDTO.setName(name.getName() + " " + name.getSurname());
-                        credentialsDTO.setUsername(username);
-                        credentialsDTO.setRoles(user.getRoles());
-                        return Mono.just(credentialsDTO);
-                    });
-        } else {
-            return Mono.error(new RuntimeException("Credenciales incorrectas"));
-        }
+        return passwordHashing.matches(password, user.getPassword())
+            .flatMap(matches -> {
+                if (!matches) {
+                    return Mono.error(new RuntimeException("Credenciales incorrectas"));
+                }
+
+                String token = jwtUtil.generateToken(user.getEmail(),
+                        user.getRoles().toArray(new String[0]));
+                // El usuario ya está cargado: no hace falta volver a buscarlo para armar el nombre
+                UserCredentialsDTO credentialsDTO = new UserCredentialsDTO();
+                credentialsDTO.setId(user.getId());
+                credentialsDTO.setToken(token);
+                credentialsDTO.setName(user.getName() + " " + user.getSurname());
+                credentialsDTO.setUsername(username);
+                credentialsDTO.setRoles(user.getRoles());
+                return Mono.just(credentialsDTO);
+            });
     }
     
 }
\ No newline at end of file
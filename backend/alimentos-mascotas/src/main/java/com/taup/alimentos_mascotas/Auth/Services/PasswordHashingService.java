@@ -0,0 +1,87 @@
+package com.taup.alimentos_mascotas.Auth.Services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Hash y verificación de contraseñas fuera del event loop de Netty.
+ * BCrypt tarda del orden de 100 ms por llamada, así que corre en un pool propio de tamaño fijo con una cola acotada:
+ * si la cola se llena (ráfaga de logins) se responde 503 en lugar de acumular trabajo.
+ * Las métricas del pool se publican como "executor.*" con name=password.hashing.
+ */
+@Service
+public class PasswordHashingService {
+
+	private final PasswordEncoder passwordEncoder;
+	private final ExecutorService executor;
+	private final Scheduler scheduler;
+	private final Counter rejected;
+
+	public PasswordHashingService(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+	                              @Value("${auth.hashing.threads:0}") int threads,
+	                              @Value("${auth.hashing.queue-capacity:64}") int queueCapacity) {
+		this.passwordEncoder = passwordEncoder;
+
+		// Sin configuración se usa un hilo por núcleo: es trabajo puro de CPU
+		int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		AtomicInteger threadNumber = new AtomicInteger();
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				runnable -> {
+					Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.AbortPolicy());
+
+		this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "password.hashing");
+		this.scheduler = Schedulers.fromExecutorService(executor, "password-hashing");
+		this.rejected = Counter.builder("password.hashing.rejected")
+				.description("Operaciones de contraseña rechazadas por cola llena")
+				.register(meterRegistry);
+	}
+
+	public Mono<String> encode(String rawPassword) {
+		return onPool(() -> passwordEncoder.encode(rawPassword));
+	}
+
+	public Mono<Boolean> matches(String rawPassword, String encodedPassword) {
+		return onPool(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		scheduler.dispose();
+	}
+
+	// ? Metodos locales
+
+	private <T> Mono<T> onPool(Callable<T> work) {
+		return Mono.fromCallable(work)
+				.subscribeOn(scheduler)
+				.onErrorMap(RejectedExecutionException.class, e -> {
+					rejected.increment();
+					return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+							"Hay demasiadas operaciones de autenticación en curso. Intente nuevamente en unos segundos.");
+				});
+	}
+}
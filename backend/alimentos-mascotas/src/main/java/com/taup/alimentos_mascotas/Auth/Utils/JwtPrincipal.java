@@ -0,0 +1,22 @@
+package com.taup.alimentos_mascotas.Auth.Utils;
+
+import java.util.List;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Resultado inmutable de validar un token: usuario, roles y vencimiento (epoch en milisegundos).
+ * Se comparte entre requests desde la caché de JwtUtil, por eso no expone nada modificable.
+ */
+public record JwtPrincipal(String username, List<SimpleGrantedAuthority> authorities, long expiresAt) {
+
+	public JwtPrincipal {
+		authorities = List.copyOf(authorities);
+	}
+
+	public Authentication toAuthentication() {
+		return new UsernamePasswordAuthenticationToken(username, null, authorities);
+	}
+}
@@ -3,9 +3,18 @@ package com.taup.alimentos_mascotas.Auth.Utils;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import com.taup.alimentos_mascotas.Utils.TtlCache;
+
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.List;
 
@@ -16,6 +25,18 @@ public class JwtUtil {
 
 	private final long EXPIRATION_TIME = 28800000; // 8 horas en milisegundos
 
+	// El parser ya construido es inmutable y se puede compartir entre hilos
+	private final JwtParser parser = Jwts.parserBuilder()
+			.setSigningKey(SECRET_KEY)
+			.build();
+
+	// Tokens ya validados, por hash del token, hasta su vencimiento
+	private final TtlCache<String, JwtPrincipal> principals;
+
+	public JwtUtil(@Value("${jwt.principal-cache.max-entries:10000}") int maxEntries) {
+		this.principals = new TtlCache<>(Duration.ofMillis(EXPIRATION_TIME), maxEntries);
+	}
+
 	public String generateToken(String username, String[] roles) {
 		return Jwts.builder()
 				.setSubject(username)
@@ -28,31 +49,68 @@ public class JwtUtil {
 
 	public Claims validateToken(String token) {
 		try {
-			return Jwts.parserBuilder()
-					.setSigningKey(SECRET_KEY)
-					.build()
-					.parseClaimsJws(token)
-					.getBody();
+			return parser.parseClaimsJws(token).getBody();
 		} catch (JwtException e) {
 			throw new JwtException("Token inválido (JWT UTIL): " + e.getMessage());
 		}
 	}
 
+	/**
+	 * Valida el token una sola vez y devuelve usuario y roles. Mientras el token no venza,
+	 * las siguientes llamadas con el mismo token salen de la caché sin verificar la firma de nuevo.
+	 */
+	public JwtPrincipal parse(String token) {
+		String key = hashOf(token);
+		JwtPrincipal cached = principals.get(key);
+		if (cached != null) {
+			return cached;
+		}
+
+		Claims claims = validateToken(token);
+		JwtPrincipal principal = new JwtPrincipal(
+				claims.getSubject(),
+				rolesOf(claims).stream().map(SimpleGrantedAuthority::new).toList(),
+				claims.getExpiration() != null ? claims.getExpiration().getTime() : System.currentTimeMillis() + EXPIRATION_TIME);
+
+		principals.put(key, principal, principal.expiresAt() - System.currentTimeMillis());
+		return principal;
+	}
+
 	public String createToken(String username) {
 		return generateToken(username, new String[] { "ROLE_USER" });
 	}
 
 	public String getUsernameFromToken(String token) {
-		return validateToken(token).getSubject();
+		return parse(token).username();
 	}
 
 	public String[] getRolesFromToken(String token) {
-		// Recupera el claim "roles" como una lista de objetos (List<Object>) y
-		// convierte a String[]
-		List<?> rolesList = validateToken(token).get("roles", List.class);
-		return rolesList.stream()
-				.map(role -> role.toString()) // Asegura que cada elemento sea convertido a String
+		return parse(token).authorities().stream()
+				.map(SimpleGrantedAuthority::getAuthority)
 				.toArray(String[]::new);
 	}
 
-}
\ No newline at end of file
+	// ? Metodos locales
+
+	private List<String> rolesOf(Claims claims) {
+		// Recupera el claim "roles" como una lista de objetos (List<Object>) y convierte cada uno a String
+		List<?> rolesList = claims.get("roles", List.class);
+		if (rolesList == null) {
+			return List.of();
+		}
+		return rolesList.stream()
+				.map(role -> role.toString())
+				.toList();
+	}
+
+	private String hashOf(String token) {
+		// La caché guarda un resumen del token y no el token en sí
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+			return Base64.getEncoder().encodeToString(digest);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 no disponible", e);
+		}
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.taup.alimentos_mascotas.Configs;
+
+import com.taup.alimentos_mascotas.Models.Admins.Finance.CashRegister;
+import com.taup.alimentos_mascotas.Models.Admins.Management.Ingredient;
+import com.taup.alimentos_mascotas.Models.Admins.Management.Product;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject.Type;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class DecimalBackfillConfig {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+
+	private record DecimalField(Class<?> type, String field) {}
+
+	// Campos que se actualizan con $inc de Decimal128
+	private static final List<DecimalField> DECIMAL_FIELDS = List.of(
+			new DecimalField(Product.class, "stock"),
+			new DecimalField(Ingredient.class, "stock"),
+			new DecimalField(CashRegister.class, "totalIncome"),
+			new DecimalField(CashRegister.class, "totalExpense")
+	);
+
+	/**
+	 * Estos campos se guardaban como texto, int o double. Un $inc sobre texto falla y sobre números cambia
+	 * el tipo de a un documento por vez, así que se convierten a Decimal128 antes de atender pedidos.
+	 */
+	@PostConstruct
+	public void backfillDecimals() {
+		Flux.fromIterable(DECIMAL_FIELDS)
+				.concatMap(decimal -> mongoTemplate.updateMulti(
+								Query.query(Criteria.where(decimal.field())
+										.type(Type.stringType(), Type.doubleType(), Type.intType(), Type.longType())),
+								AggregationUpdate.update()
+										.set(decimal.field()).toValue(ConvertOperators.ToDecimal.toDecimal("$" + decimal.field())),
+								decimal.type())
+						.onErrorResume(e -> {
+							System.err.println("Error convirtiendo " + decimal.field() + " de "
+									+ decimal.type().getSimpleName() + ": " + e.getMessage());
+							return Mono.empty();
+						}))
+				.then()
+				.timeout(Duration.ofMinutes(2))
+				.onErrorResume(e -> {
+					System.err.println("No se pudieron convertir los campos a Decimal128: " + e.getMessage());
+					return Mono.empty();
+				})
+				.block();
+	}
+}
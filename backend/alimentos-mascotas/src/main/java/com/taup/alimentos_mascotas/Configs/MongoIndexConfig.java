@@ -0,0 +1,67 @@
+package com.taup.alimentos_mascotas.Configs;
+
+import com.taup.alimentos_mascotas.Models.Admins.Finance.CashMovement;
+import com.taup.alimentos_mascotas.Models.Admins.Finance.CashRegister;
+import com.taup.alimentos_mascotas.Models.Admins.Finance.Invoice;
+import com.taup.alimentos_mascotas.Models.Admins.Finance.MP.PaymentRequest;
+import com.taup.alimentos_mascotas.Models.Admins.Finance.Payment;
+import com.taup.alimentos_mascotas.Models.Admins.Management.Product;
+import com.taup.alimentos_mascotas.Models.Admins.Management.StockMovement;
+import com.taup.alimentos_mascotas.Models.Admins.Management.StockSnapshot;
+import com.taup.alimentos_mascotas.Models.Admins.Management.WorkOrder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class MongoIndexConfig {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final MongoMappingContext mappingContext;
+
+	// Documentos cuyos @Indexed se crean al iniciar (auto-index-creation está desactivado)
+	private static final List<Class<?>> INDEXED_DOCUMENTS = List.of(
+			Payment.class,
+			Invoice.class,
+			CashMovement.class,
+			CashRegister.class,
+			WorkOrder.class,
+			Product.class,
+			StockMovement.class,
+			StockSnapshot.class,
+			PaymentRequest.class
+	);
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void ensureIndexes() {
+		IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+
+		Flux.fromIterable(INDEXED_DOCUMENTS)
+				.flatMap(type -> {
+					ReactiveIndexOperations indexOps = mongoTemplate.indexOps(type);
+					// Un índice que falla (por ejemplo, un unique con datos duplicados) no impide crear los demás,
+					// y resolveIndexFor lanza una excepción si el tipo no es un @Document: también se aísla por tipo
+					return Flux.defer(() -> Flux.fromIterable(resolver.resolveIndexFor(type)))
+							.flatMap(index -> indexOps.ensureIndex(index)
+									.onErrorResume(e -> skip(type, e)))
+							.onErrorResume(e -> skip(type, e));
+				})
+				.subscribe();
+	}
+
+	private static <T> Mono<T> skip(Class<?> type, Throwable error) {
+		System.err.println("Error creando índices de " + type.getSimpleName() + ": " + error.getMessage());
+		return Mono.empty();
+	}
+}
@@ -0,0 +1,47 @@
+package com.taup.alimentos_mascotas.Configs;
+
+import com.taup.alimentos_mascotas.Models.Admins.Management.WorkOrder;
+import com.taup.alimentos_mascotas.Utils.Priority;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+@Configuration
+@RequiredArgsConstructor
+public class PriorityRankBackfillConfig {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+
+	/**
+	 * Las órdenes anteriores a priorityRank solo tienen el nombre de la prioridad. Se completa el rango antes de
+	 * atender pedidos y se borra el índice viejo por nombre, que ya no respalda ningún ordenamiento.
+	 */
+	@PostConstruct
+	public void backfillPriorityRanks() {
+		Flux.fromArray(Priority.values())
+				.flatMap(priority -> mongoTemplate.updateMulti(
+								Query.query(Criteria.where("priority").is(priority.name()).and("priorityRank").exists(false)),
+								new Update().set("priorityRank", priority.getRank()),
+								WorkOrder.class)
+						.onErrorResume(e -> {
+							System.err.println("Error completando la prioridad " + priority + ": " + e.getMessage());
+							return Mono.empty();
+						}))
+				.then(mongoTemplate.indexOps(WorkOrder.class).dropIndex("priority_createdAt_id")
+						.onErrorResume(e -> Mono.empty())) // No existe en bases nuevas
+				.timeout(Duration.ofMinutes(2))
+				.onErrorResume(e -> {
+					System.err.println("No se pudieron completar las prioridades de las órdenes: " + e.getMessage());
+					return Mono.empty();
+				})
+				.block();
+	}
+}
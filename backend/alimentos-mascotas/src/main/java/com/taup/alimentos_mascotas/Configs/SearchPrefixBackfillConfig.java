@@ -0,0 +1,43 @@
+package com.taup.alimentos_mascotas.Configs;
+
+import com.taup.alimentos_mascotas.Models.Admins.Management.Product;
+import com.taup.alimentos_mascotas.Services.Admins.Management.ProductSearchIndexer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+@Configuration
+@RequiredArgsConstructor
+public class SearchPrefixBackfillConfig {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+
+	/**
+	 * Completa los prefijos de búsqueda de los productos guardados antes de que existieran.
+	 * Corre en segundo plano: mientras tanto esos productos solo aparecen en los listados sin palabra clave.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfillSearchFields() {
+		Query missing = Query.query(Criteria.where("searchPrefixes").exists(false));
+
+		mongoTemplate.find(missing, Product.class)
+				.concatMap(product -> {
+					ProductSearchIndexer.applySearchFields(product);
+					Update update = new Update()
+							.set("searchPrefixes", product.getSearchPrefixes())
+							.set("namePrefixes", product.getNamePrefixes());
+					return mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(product.getId())), update, Product.class);
+				})
+				.onErrorResume(e -> {
+					System.err.println("Error generando los prefijos de búsqueda de productos: " + e.getMessage());
+					return Mono.empty();
+				})
+				.subscribe();
+	}
+}
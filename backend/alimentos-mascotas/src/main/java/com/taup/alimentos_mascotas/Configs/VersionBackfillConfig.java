@@ -0,0 +1,73 @@
+package com.taup.alimentos_mascotas.Configs;
+
+import com.taup.alimentos_mascotas.Models.Admins.FrontSide.Category;
+import com.taup.alimentos_mascotas.Models.Admins.FrontSide.Review;
+import com.taup.alimentos_mascotas.Models.Admins.Finance.Invoice;
+import com.taup.alimentos_mascotas.Models.Admins.Finance.Payment;
+import com.taup.alimentos_mascotas.Models.Admins.Finance.Provider;
+import com.taup.alimentos_mascotas.Models.Admins.Management.BuyOrder;
+import com.taup.alimentos_mascotas.Models.Admins.Management.Ingredient;
+import com.taup.alimentos_mascotas.Models.Admins.Management.Product;
+import com.taup.alimentos_mascotas.Models.Admins.Management.PurchaseOrder;
+import com.taup.alimentos_mascotas.Models.Admins.Management.Recipe;
+import com.taup.alimentos_mascotas.Models.Admins.Management.WorkOrder;
+import com.taup.alimentos_mascotas.Models.Profiles.User;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class VersionBackfillConfig {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+
+	// Documentos que heredan @Version de ModelClass
+	private static final List<Class<?>> VERSIONED_DOCUMENTS = List.of(
+			Product.class,
+			WorkOrder.class,
+			Ingredient.class,
+			BuyOrder.class,
+			Recipe.class,
+			PurchaseOrder.class,
+			Review.class,
+			Category.class,
+			Payment.class,
+			Invoice.class,
+			Provider.class,
+			User.class
+	);
+
+	/**
+	 * Los documentos anteriores a @Version no tienen el campo; Spring Data los tomaría como nuevos e intentaría
+	 * insertarlos al guardar. Se completa con versión 0 antes de que el servidor empiece a atender pedidos.
+	 */
+	@PostConstruct
+	public void backfillVersions() {
+		Query missing = Query.query(Criteria.where("version").exists(false));
+		Update initial = new Update().set("version", 0L);
+
+		Flux.fromIterable(VERSIONED_DOCUMENTS)
+				.flatMap(type -> mongoTemplate.updateMulti(missing, initial, type)
+						.onErrorResume(e -> {
+							System.err.println("Error inicializando versiones de " + type.getSimpleName() + ": " + e.getMessage());
+							return Mono.empty();
+						}))
+				.then()
+				.timeout(Duration.ofMinutes(2))
+				.onErrorResume(e -> {
+					System.err.println("No se pudieron inicializar las versiones: " + e.getMessage());
+					return Mono.empty();
+				})
+				.block();
+	}
+}
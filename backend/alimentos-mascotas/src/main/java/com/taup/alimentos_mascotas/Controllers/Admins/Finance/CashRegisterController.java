@@ -3,6 +3,7 @@ package com.taup.alimentos_mascotas.Controllers.Admins.Finance;
 import com.taup.alimentos_mascotas.DTO.CashMovementRequestDTO;
 import com.taup.alimentos_mascotas.Models.Admins.Finance.CashMovement;
 import com.taup.alimentos_mascotas.Models.Admins.Finance.CashRegister;
+import com.taup.alimentos_mascotas.Models.Admins.Finance.MonthlyCashBalance;
 import com.taup.alimentos_mascotas.Services.Admins.Finance.CashRegisterService;
 import com.taup.alimentos_mascotas.Utils.MonthlyBalance;
 import io.swagger.v3.oas.annotations.Operation;
@@ -21,6 +22,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -78,15 +80,37 @@ public class CashRegisterController {
 			@Parameter(description = "Año del balance, debe ser menor o igual al año actual", example = "2024") @RequestParam int year,
 			@Parameter(description = "Mes del balance, debe estar entre 1 y 12 y no puede ser posterior al mes actual", example = "1") @RequestParam int month) {
 
-		if (year < 0 || month < 1 || month > 12) {
-			return Mono.error(
-					new ResponseStatusException(HttpStatus.BAD_REQUEST, "Parámetros inválidos (año o mes fuera de rango)"));
-		}
 		return cashRegisterService.getMonthlyBalance(year, month)
 				.switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND,
 						"No se encontraron cierres de caja para el mes especificado")));
 	}
 
+	@PostMapping("/balance-mensual/recalcular")
+	@Operation(summary = "Reconstruir balance mensual", description = "Recalcula desde cero el resumen mensual a partir de los cierres de caja del mes indicado.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Resumen mensual reconstruido correctamente"),
+			@ApiResponse(responseCode = "400", description = "Parámetros inválidos (año o mes fuera de rango)")
+	})
+	public Mono<ResponseEntity<MonthlyCashBalance>> rebuildMonthlyBalance(
+			@Parameter(description = "Año del balance", example = "2024") @RequestParam int year,
+			@Parameter(description = "Mes del balance, entre 1 y 12", example = "1") @RequestParam int month) {
+
+		return cashRegisterService.rebuildMonthlyBalance(year, month)
+				.map(ResponseEntity::ok);
+	}
+
+	@PostMapping("/recalcular/{cashRegisterId}")
+	@Operation(summary = "Recalcular totales de una caja", description = "Recalcula desde cero los ingresos y egresos de la caja indicada y reemplaza sus acumuladores. Pensado para auditorías o para reconstruir una caja.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Totales recalculados correctamente"),
+			@ApiResponse(responseCode = "404", description = "Caja no encontrada")
+	})
+	public Mono<ResponseEntity<CashRegister>> rebuildTotals(
+			@Parameter(description = "ID de la caja a recalcular", required = true) @PathVariable String cashRegisterId) {
+		return cashRegisterService.rebuildTotals(cashRegisterId)
+				.map(ResponseEntity::ok);
+	}
+
 	@PostMapping("/registrar-movimiento")
 	@Operation(summary = "Registrar movimiento en caja", description = "Registra un ingreso o egreso manual en la caja abierta.")
 	@ApiResponses(value = {
@@ -43,8 +43,10 @@ public class InvoiceController {
 	@GetMapping("/paged")
 	public Mono<PagedResponse<Invoice>> getInvoicesPaged(
 			@Parameter(description = "Número de página (por defecto 0)", example = "0") @RequestParam(defaultValue = "0") int page,
-			@Parameter(description = "Tamaño de la página (por defecto 10)", example = "10") @RequestParam(defaultValue = "10") int size) {
-		return invoiceService.getInvoicesPaged(page, size);
+			@Parameter(description = "Tamaño de la página (por defecto 10)", example = "10") @RequestParam(defaultValue = "10") int size,
+			@Parameter(description = "Cursor de paginación por _id; vacío para la primera página, luego el nextCursor recibido") @RequestParam(required = false) String after,
+			@Parameter(description = "Si es false no se calcula el total de registros") @RequestParam(defaultValue = "true") boolean withTotal) {
+		return invoiceService.getInvoicesPaged(page, size, after, withTotal);
 	}
 
 	@Operation(summary = "Obtener una factura con detalles", description = "Retorna los detalles de una factura específica, incluyendo información del proveedor.")
@@ -55,8 +55,11 @@ public class MercadoPagoController {
     public Mono<PagedResponse<PaymentRequest>> listAllPaymentsPaged(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size,
-            @RequestParam(required = false) String keyword) {
-        return buyOrderByMercadoPagoService.listAllPaged(page, size, keyword);
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String email,
+            @RequestParam(defaultValue = "true") boolean withTotal) {
+        return buyOrderByMercadoPagoService.listAllPaged(page, size, keyword, status, email, withTotal);
     }
 
     @GetMapping("/pagos/{paymentId}")
@@ -36,8 +36,10 @@ public class ProviderController {
 	@GetMapping("/paged")
 	public Mono<PagedResponse<Provider>> getInvoicesPaged(
 			@RequestParam(defaultValue = "0") int page,
-			@RequestParam(defaultValue = "10") int size) {
-		return providerService.getProvidersPaged(page, size);
+			@RequestParam(defaultValue = "10") int size,
+			@RequestParam(required = false) String after,
+			@RequestParam(defaultValue = "true") boolean withTotal) {
+		return providerService.getProvidersPaged(page, size, after, withTotal);
 	}
 
 	@Operation(summary = "Obtener proveedor por ID", description = "Retorna la información de un proveedor específico por su ID")
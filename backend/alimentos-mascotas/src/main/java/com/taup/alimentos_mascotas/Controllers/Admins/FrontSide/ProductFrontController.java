@@ -3,7 +3,9 @@ package com.taup.alimentos_mascotas.Controllers.Admins.FrontSide;
 import com.taup.alimentos_mascotas.DTO.PagedResponse;
 import com.taup.alimentos_mascotas.DTO.ProductFrontDTO;
 import com.taup.alimentos_mascotas.Services.Admins.FrontSide.ProductFrontService;
+import com.taup.alimentos_mascotas.Utils.HttpCaching;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
@@ -15,15 +17,18 @@ public class ProductFrontController {
 	private final ProductFrontService productFrontService;
 
 	@GetMapping("/pagina")
-	public Mono<PagedResponse<ProductFrontDTO>> listAllPaged(
+	public Mono<ResponseEntity<PagedResponse<ProductFrontDTO>>> listAllPaged(
 			@RequestParam(defaultValue = "0") int page,
 			@RequestParam(defaultValue = "10") int size,
 			@RequestParam(required = false) String keyword) {
-		return productFrontService.listAllPaged(page, size, keyword);
+		return productFrontService.listAllPaged(page, size, keyword)
+				.map(pageResponse -> HttpCaching.okPage(pageResponse, ProductFrontDTO::getId,
+						ProductFrontDTO::getUpdatedAt, HttpCaching.REVALIDATE_PUBLIC));
 	}
 
 	@GetMapping("/obtener/{productId}")
-	public Mono<ProductFrontDTO> getProduct(@PathVariable String productId) {
-		return productFrontService.getProduct(productId);
+	public Mono<ResponseEntity<ProductFrontDTO>> getProduct(@PathVariable String productId) {
+		return productFrontService.getProduct(productId)
+				.map(product -> HttpCaching.ok(product, product.getId(), product.getUpdatedAt(), HttpCaching.REVALIDATE_PUBLIC));
 	}
 }
\ No newline at end of file
@@ -3,13 +3,17 @@ package com.taup.alimentos_mascotas.Controllers.Admins.FrontSide;
 import com.taup.alimentos_mascotas.DTO.PagedResponse;
 import com.taup.alimentos_mascotas.Models.Admins.FrontSide.Review;
 import com.taup.alimentos_mascotas.Services.Admins.FrontSide.ReviewService;
+import com.taup.alimentos_mascotas.Utils.HttpCaching;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/resenas")
 @RequiredArgsConstructor
@@ -18,16 +22,21 @@ public class ReviewController {
 	private final ReviewService reviewService;
 
 	@GetMapping("/pagina")
-	public Mono<PagedResponse<Review>> listAllPaged(
+	public Mono<ResponseEntity<PagedResponse<Review>>> listAllPaged(
 			@RequestParam(defaultValue = "0") int page,
 			@RequestParam(defaultValue = "10") int size,
-			@RequestParam(required = false) String keyword) {
-		return reviewService.listAllPaged(page, size, keyword);
+			@RequestParam(required = false) String keyword,
+			@RequestParam(required = false) String after,
+			@RequestParam(defaultValue = "true") boolean withTotal) {
+		return reviewService.listAllPaged(page, size, keyword, after, withTotal)
+				.map(pageResponse -> HttpCaching.okPage(pageResponse, Review::getId, this::lastChange, HttpCaching.REVALIDATE));
 	}
 
 	@GetMapping("/mejores/{productId}")
-	public Flux<Review> getBestReviewsForProduct(@PathVariable String productId) {
-		return reviewService.getBestReviewsForProduct(productId);
+	public Mono<ResponseEntity<List<Review>>> getBestReviewsForProduct(@PathVariable String productId) {
+		return reviewService.getBestReviewsForProduct(productId)
+				.collectList()
+				.map(reviews -> HttpCaching.okList(reviews, Review::getId, this::lastChange, HttpCaching.REVALIDATE_PUBLIC));
 	}
 
 	@PostMapping("/guardar")
@@ -54,4 +63,8 @@ public class ReviewController {
 	public Mono<Void> delete(@PathVariable String reviewId) {
 		return reviewService.delete(reviewId);
 	}
+
+	private LocalDateTime lastChange(Review review) {
+		return review.getUpdatedAt() != null ? review.getUpdatedAt() : review.getCreatedAt();
+	}
 }
@@ -1,5 +1,6 @@
 package com.taup.alimentos_mascotas.Controllers.Admins.Management;
 
+import com.taup.alimentos_mascotas.DTO.BuyOrderRowDTO;
 import com.taup.alimentos_mascotas.DTO.PagedResponse;
 import com.taup.alimentos_mascotas.Models.Admins.Management.BuyOrder;
 import com.taup.alimentos_mascotas.Services.Admins.Management.BuyOrderService;
@@ -25,8 +26,23 @@ public class BuyOrderController {
 			@RequestParam(defaultValue = "10") int size,
 			@RequestParam(required = false) String keyword,
 			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-		return buyOrderService.listAllPaged(page, size, keyword, startDate, endDate);
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+			@RequestParam(required = false) String after,
+			@RequestParam(defaultValue = "true") boolean withTotal) {
+		return buyOrderService.listAllPaged(page, size, keyword, startDate, endDate, after, withTotal);
+	}
+
+	// Filas livianas para la grilla; fields=a,b,c limita las columnas
+	@GetMapping("/filas")
+	public Mono<PagedResponse<BuyOrderRowDTO>> listRows(
+			@RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "10") int size,
+			@RequestParam(required = false) String keyword,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+			@RequestParam(required = false) String fields,
+			@RequestParam(defaultValue = "true") boolean withTotal) {
+		return buyOrderService.listRows(page, size, keyword, startDate, endDate, fields, withTotal);
 	}
 
 	@GetMapping("/obtener-todas")
@@ -0,0 +1,34 @@
+package com.taup.alimentos_mascotas.Controllers.Admins.Management;
+
+import com.taup.alimentos_mascotas.DTO.CascadeImpactDTO;
+import com.taup.alimentos_mascotas.Services.Admins.Management.CascadeDeleteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/eliminaciones")
+@Tag(name = "Cascade Controller", description = "Endpoints para consultar el alcance de las eliminaciones en cascada")
+@RequiredArgsConstructor
+public class CascadeController {
+
+	private final CascadeDeleteService cascadeDeleteService;
+
+	// Simulacro: informa cuántos documentos modificaría eliminar la entidad, sin borrar nada
+	@Operation(summary = "Consultar el impacto de una eliminación", description = "Informa cuántos documentos relacionados se modificarían al eliminar la entidad, sin borrar nada. Los valores para 'entity' son: 'ingrediente', 'receta', 'producto' o 'resena'.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Impacto calculado exitosamente"),
+			@ApiResponse(responseCode = "400", description = "Entidad desconocida")
+	})
+	@GetMapping("/impacto/{entity}/{id}")
+	public Mono<CascadeImpactDTO> impact(
+			@Parameter(description = "Tipo de entidad a eliminar", required = true, example = "receta") @PathVariable String entity,
+			@Parameter(description = "ID de la entidad", required = true) @PathVariable String id) {
+		return cascadeDeleteService.impactOf(entity, id);
+	}
+}
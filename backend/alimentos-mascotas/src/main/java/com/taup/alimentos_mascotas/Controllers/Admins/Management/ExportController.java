@@ -0,0 +1,58 @@
+package com.taup.alimentos_mascotas.Controllers.Admins.Management;
+
+import com.taup.alimentos_mascotas.Services.Common.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/exportar")
+@Tag(name = "Export Controller", description = "Endpoints para exportar colecciones completas")
+@RequiredArgsConstructor
+public class ExportController {
+
+	private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+	private final ExportService exportService;
+
+	// Un objeto JSON por línea; cada fila se envía apenas sale del cursor
+	@Operation(summary = "Exportar una colección en NDJSON", description = "Envía un objeto JSON por línea a medida que se leen los documentos, sin cargar la colección completa en memoria.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Exportación en curso"),
+			@ApiResponse(responseCode = "400", description = "Campos pedidos inválidos"),
+			@ApiResponse(responseCode = "404", description = "Colección no exportable")
+	})
+	@GetMapping(value = "/{entity}/ndjson", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<Map<String, Object>> exportNdjson(
+			@Parameter(description = "Colección a exportar: productos, ingredientes, recetas, ventas, ordenes-compra u ordenes-trabajo", required = true, example = "productos") @PathVariable String entity,
+			@Parameter(description = "Campos a incluir separados por coma; vacío para los campos por defecto", example = "id,name,stock") @RequestParam(required = false) String fields) {
+		return exportService.exportRows(entity, fields);
+	}
+
+	@Operation(summary = "Exportar una colección en CSV", description = "Envía el encabezado y luego una línea por documento como archivo adjunto.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Exportación en curso"),
+			@ApiResponse(responseCode = "400", description = "Campos pedidos inválidos"),
+			@ApiResponse(responseCode = "404", description = "Colección no exportable")
+	})
+	@GetMapping("/{entity}/csv")
+	public ResponseEntity<Flux<String>> exportCsv(
+			@Parameter(description = "Colección a exportar: productos, ingredientes, recetas, ventas, ordenes-compra u ordenes-trabajo", required = true, example = "productos") @PathVariable String entity,
+			@Parameter(description = "Campos a incluir separados por coma; vacío para los campos por defecto", example = "id,name,stock") @RequestParam(required = false) String fields) {
+		return ResponseEntity.ok()
+				.contentType(TEXT_CSV)
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + entity.replaceAll("[^a-z-]", "") + ".csv\"")
+				.body(exportService.exportCsv(entity, fields));
+	}
+}
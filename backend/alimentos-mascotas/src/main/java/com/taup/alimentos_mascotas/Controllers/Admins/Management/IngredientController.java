@@ -1,5 +1,7 @@
 package com.taup.alimentos_mascotas.Controllers.Admins.Management;
 
+import com.taup.alimentos_mascotas.DTO.IngredientRowDTO;
+import com.taup.alimentos_mascotas.DTO.LinkPairDTO;
 import com.taup.alimentos_mascotas.DTO.PagedResponse;
 import com.taup.alimentos_mascotas.Models.Admins.Management.Ingredient;
 import com.taup.alimentos_mascotas.Services.Admins.Management.IngredientService;
@@ -12,6 +14,8 @@ import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/ingredientes")
 @AllArgsConstructor
@@ -23,8 +27,21 @@ public class IngredientController {
 	public Mono<PagedResponse<Ingredient>> getPagedResponse(
 			@RequestParam(defaultValue = "0") int page,
 			@RequestParam(defaultValue = "5") int size,
-			@RequestParam(required = false) String keyword) {
-		return ingredientService.listAllPaged(page, size, keyword);
+			@RequestParam(required = false) String keyword,
+			@RequestParam(required = false) String after,
+			@RequestParam(defaultValue = "true") boolean withTotal) {
+		return ingredientService.listAllPaged(page, size, keyword, after, withTotal);
+	}
+
+	// Filas livianas para la grilla; fields=a,b,c limita las columnas
+	@GetMapping("/filas")
+	public Mono<PagedResponse<IngredientRowDTO>> listRows(
+			@RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "5") int size,
+			@RequestParam(required = false) String keyword,
+			@RequestParam(required = false) String fields,
+			@RequestParam(defaultValue = "true") boolean withTotal) {
+		return ingredientService.listRows(page, size, keyword, fields, withTotal);
 	}
 
 	@GetMapping("/obtener-ingredientes")
@@ -57,7 +74,7 @@ public class IngredientController {
 	@PutMapping("/{ingredientId}/agregar-proveedor/{providerId}")
 	public Mono<ResponseEntity<Ingredient>> addProvider(Authentication auth, @PathVariable String providerId, @PathVariable String ingredientId) {
 		String username = auth.getName();
-		return ingredientService.addProviderToIngredient(ingredientId, providerId)
+		return ingredientService.addProviderToIngredient(ingredientId, providerId, username)
 				.map(ingredient -> ResponseEntity.status(HttpStatus.OK).body(ingredient))
 				.onErrorResume((error -> {
 					System.err.println("Error al guardar el ingrediente: " + error.getMessage());
@@ -68,7 +85,7 @@ public class IngredientController {
 	@PutMapping("/{ingredientId}/quitar-proveedor/{providerId}")
 	public Mono<ResponseEntity<Ingredient>> removeProvider(Authentication auth, @PathVariable String providerId, @PathVariable String ingredientId) {
 		String username = auth.getName();
-		return ingredientService.removeProviderToIngredient(ingredientId, providerId)
+		return ingredientService.removeProviderToIngredient(ingredientId, providerId, username)
 				.map(ingredient -> ResponseEntity.status(HttpStatus.OK).body(ingredient))
 				.onErrorResume((error -> {
 					System.err.println("Error al guardar el ingrediente: " + error.getMessage());
@@ -76,6 +93,19 @@ public class IngredientController {
 				}));
 	}
 
+	// Vincula muchos pares ingrediente-proveedor en una sola escritura bulk
+	@PostMapping("/vincular-proveedores")
+	public Mono<ResponseEntity<Void>> linkProviders(Authentication auth, @RequestBody List<LinkPairDTO> pairs) {
+		return ingredientService.linkProviders(pairs, auth.getName())
+				.then(Mono.just(ResponseEntity.noContent().<Void>build()));
+	}
+
+	@PostMapping("/desvincular-proveedores")
+	public Mono<ResponseEntity<Void>> unlinkProviders(Authentication auth, @RequestBody List<LinkPairDTO> pairs) {
+		return ingredientService.unlinkProviders(pairs, auth.getName())
+				.then(Mono.just(ResponseEntity.noContent().<Void>build()));
+	}
+
 	@DeleteMapping("/eliminar/{ingredientId}")
 	public Mono<ResponseEntity<Void>> deleteIngredient (@PathVariable String ingredientId) {
 		return ingredientService.deleteIngredient(ingredientId)
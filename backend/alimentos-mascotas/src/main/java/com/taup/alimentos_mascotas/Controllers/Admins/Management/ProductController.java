@@ -2,17 +2,22 @@ package com.taup.alimentos_mascotas.Controllers.Admins.Management;
 
 import com.taup.alimentos_mascotas.DTO.PagedResponse;
 import com.taup.alimentos_mascotas.DTO.ProductDTO;
+import com.taup.alimentos_mascotas.DTO.ProductRowDTO;
 import com.taup.alimentos_mascotas.DTO.ProductWithImageDTO;
 import com.taup.alimentos_mascotas.Models.Admins.Management.Product;
 import com.taup.alimentos_mascotas.Services.Admins.Management.ProductService;
+import com.taup.alimentos_mascotas.Utils.HttpCaching;
 import lombok.AllArgsConstructor;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+
 
 @RestController
 @RequestMapping("/api/productos")
@@ -25,8 +30,21 @@ public class ProductController {
 	public Mono<PagedResponse<Product>> listAllPaged(
 			@RequestParam(defaultValue = "0") int page,
 			@RequestParam(defaultValue = "5") int size,
-			@RequestParam(required = false) String keyword) {
-		return productService.listAllPaged(page, size, keyword);
+			@RequestParam(required = false) String keyword,
+			@RequestParam(required = false) String after,
+			@RequestParam(defaultValue = "true") boolean withTotal) {
+		return productService.listAllPaged(page, size, keyword, after, withTotal);
+	}
+
+	// Filas livianas para la grilla; fields=a,b,c limita las columnas
+	@GetMapping("/filas")
+	public Mono<PagedResponse<ProductRowDTO>> listRows(
+			@RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "5") int size,
+			@RequestParam(required = false) String keyword,
+			@RequestParam(required = false) String fields,
+			@RequestParam(defaultValue = "true") boolean withTotal) {
+		return productService.listRows(page, size, keyword, fields, withTotal);
 	}
 
 	@GetMapping("/obtener-todos")
@@ -35,8 +53,9 @@ public class ProductController {
 	}
 
 	@GetMapping("/obtener/{productId}")
-	public Mono<Product> getProduct(@PathVariable String productId) {
-		return productService.getById(productId);
+	public Mono<ResponseEntity<Product>> getProduct(@PathVariable String productId) {
+		return productService.getById(productId)
+				.map(product -> HttpCaching.ok(product, product.getId(), lastChange(product), HttpCaching.REVALIDATE));
 	}
 	
 
@@ -117,17 +136,21 @@ public class ProductController {
 	}
 
 	@PostMapping("/{productId}/agregar-receta/{recipeId}")
-	public Mono<Product> addRecipeToProduct(@PathVariable String productId, @PathVariable String recipeId) {
-		return productService.addRecipeToProduct(productId, recipeId);
+	public Mono<Product> addRecipeToProduct(Authentication auth, @PathVariable String productId, @PathVariable String recipeId) {
+		return productService.addRecipeToProduct(productId, recipeId, auth.getName());
 	}
 
 	@PostMapping("/{productId}/quitar-receta/{recipeId}")
-	public Mono<Product> removeRecipeToProduct(@PathVariable String productId, @PathVariable String recipeId) {
-		return productService.removeRecipeToProduct(productId, recipeId);
+	public Mono<Product> removeRecipeToProduct(Authentication auth, @PathVariable String productId, @PathVariable String recipeId) {
+		return productService.removeRecipeToProduct(productId, recipeId, auth.getName());
 	}
 
 	@DeleteMapping("/eliminar/{productId}")
 	public Mono<Void> delete(@PathVariable String productId) {
 		return productService.delete(productId);
 	}
-}
\ No newline at end of file
+
+	private LocalDateTime lastChange(Product product) {
+		return product.getUpdatedAt() != null ? product.getUpdatedAt() : product.getCreatedAt();
+	}
+}
@@ -1,6 +1,7 @@
 package com.taup.alimentos_mascotas.Controllers.Admins.Management;
 
 import com.taup.alimentos_mascotas.DTO.PagedResponse;
+import com.taup.alimentos_mascotas.DTO.PurchaseOrderRowDTO;
 import com.taup.alimentos_mascotas.Models.Admins.Management.PurchaseOrder;
 import com.taup.alimentos_mascotas.Services.Admins.Management.PurchaseOrderService;
 import lombok.AllArgsConstructor;
@@ -25,8 +26,23 @@ public class PurchaseOrderController {
 			@RequestParam(defaultValue = "5") int size,
 			@RequestParam(required = false) String keyword,
 			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-		return purchaseOrderService.listAllPaged(page, size, keyword, startDate, endDate);
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+			@RequestParam(required = false) String after,
+			@RequestParam(defaultValue = "true") boolean withTotal) {
+		return purchaseOrderService.listAllPaged(page, size, keyword, startDate, endDate, after, withTotal);
+	}
+
+	// Filas livianas para la grilla; fields=a,b,c limita las columnas
+	@GetMapping("/filas")
+	public Mono<PagedResponse<PurchaseOrderRowDTO>> listRows(
+			@RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "5") int size,
+			@RequestParam(required = false) String keyword,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+			@RequestParam(required = false) String fields,
+			@RequestParam(defaultValue = "true") boolean withTotal) {
+		return purchaseOrderService.listRows(page, size, keyword, startDate, endDate, fields, withTotal);
 	}
 
 	@GetMapping("/obtener-todas")
@@ -1,6 +1,8 @@
 package com.taup.alimentos_mascotas.Controllers.Admins.Management;
 
+import com.taup.alimentos_mascotas.DTO.LinkPairDTO;
 import com.taup.alimentos_mascotas.DTO.PagedResponse;
+import com.taup.alimentos_mascotas.DTO.RecipeRowDTO;
 import com.taup.alimentos_mascotas.Models.Admins.Management.Recipe;
 import com.taup.alimentos_mascotas.Services.Admins.Management.RecipeService;
 import lombok.AllArgsConstructor;
@@ -13,6 +15,8 @@ import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/recetas")
 @AllArgsConstructor
@@ -24,8 +28,21 @@ public class RecipeController {
 	public Mono<PagedResponse<Recipe>> getPagedResponse(
 			@RequestParam(defaultValue = "0") int page,
 			@RequestParam(defaultValue = "5") int size,
-			@RequestParam(required = false) String keyword) {
-		return recipeService.listAllPaged(page, size, keyword);
+			@RequestParam(required = false) String keyword,
+			@RequestParam(required = false) String after,
+			@RequestParam(defaultValue = "true") boolean withTotal) {
+		return recipeService.listAllPaged(page, size, keyword, after, withTotal);
+	}
+
+	// Filas livianas para la grilla; fields=a,b,c limita las columnas
+	@GetMapping("/filas")
+	public Mono<PagedResponse<RecipeRowDTO>> listRows(
+			@RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "5") int size,
+			@RequestParam(required = false) String keyword,
+			@RequestParam(required = false) String fields,
+			@RequestParam(defaultValue = "true") boolean withTotal) {
+		return recipeService.listRows(page, size, keyword, fields, withTotal);
 	}
 
 	@GetMapping("/obtener-todas")
@@ -78,6 +95,19 @@ public class RecipeController {
 				}));
 	}
 
+	// Vincula muchos pares receta-producto en una sola escritura bulk por colección
+	@PostMapping("/vincular-productos")
+	public Mono<ResponseEntity<Void>> linkProducts(Authentication auth, @RequestBody List<LinkPairDTO> pairs) {
+		return recipeService.linkProducts(pairs, auth.getName())
+				.then(Mono.just(ResponseEntity.noContent().<Void>build()));
+	}
+
+	@PostMapping("/desvincular-productos")
+	public Mono<ResponseEntity<Void>> unlinkProducts(Authentication auth, @RequestBody List<LinkPairDTO> pairs) {
+		return recipeService.unlinkProducts(pairs, auth.getName())
+				.then(Mono.just(ResponseEntity.noContent().<Void>build()));
+	}
+
 	@DeleteMapping("/eliminar/{recipeId}")
 	public Mono<ResponseEntity<Void>> deleteRecipe (@PathVariable String recipeId) {
 		return recipeService.delete(recipeId)
@@ -0,0 +1,84 @@
+package com.taup.alimentos_mascotas.Controllers.Admins.Management;
+
+import com.taup.alimentos_mascotas.DTO.StockAdjustmentDTO;
+import com.taup.alimentos_mascotas.Models.Admins.Management.StockMovement;
+import com.taup.alimentos_mascotas.Services.Admins.Management.StockLedgerService;
+import com.taup.alimentos_mascotas.Utils.StockItemType;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/stock")
+@Tag(name = "Stock Controller", description = "Endpoints para consultar y ajustar el libro de movimientos de stock")
+@RequiredArgsConstructor
+public class StockController {
+
+	private final StockLedgerService stockLedgerService;
+
+	@Operation(summary = "Obtener el stock de un item a una fecha", description = "Parte de la última foto de stock anterior a la fecha (o del saldo previo al libro si no hay ninguna) y le suma los movimientos registrados hasta ese momento.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Stock calculado exitosamente"),
+			@ApiResponse(responseCode = "404", description = "Item no encontrado")
+	})
+	@GetMapping("/saldo/{itemType}/{itemId}")
+	public Mono<BigDecimal> balanceAsOf(
+			@Parameter(description = "Tipo de item: INGREDIENT o PRODUCT", required = true, example = "INGREDIENT") @PathVariable StockItemType itemType,
+			@Parameter(description = "ID del ingrediente o producto", required = true) @PathVariable String itemId,
+			@Parameter(description = "Fecha y hora del saldo en formato ISO", required = true, example = "2025-01-31T23:59:59") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+		return stockLedgerService.balanceAsOf(itemType, itemId, asOf);
+	}
+
+	@Operation(summary = "Listar movimientos de stock de un item", description = "Devuelve los movimientos del item ocurridos entre las dos fechas, ordenados por fecha.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Movimientos obtenidos exitosamente")
+	})
+	@GetMapping("/movimientos/{itemType}/{itemId}")
+	public Flux<StockMovement> getMovements(
+			@Parameter(description = "Tipo de item: INGREDIENT o PRODUCT", required = true, example = "PRODUCT") @PathVariable StockItemType itemType,
+			@Parameter(description = "ID del ingrediente o producto", required = true) @PathVariable String itemId,
+			@Parameter(description = "Fecha y hora inicial en formato ISO", required = true, example = "2025-01-01T00:00:00") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@Parameter(description = "Fecha y hora final en formato ISO", required = true, example = "2025-01-31T23:59:59") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+		return stockLedgerService.getMovements(itemType, itemId, from, to);
+	}
+
+	@Operation(summary = "Registrar un ajuste manual de stock", description = "Agrega un movimiento de ajuste al libro y lo aplica al stock del item. La cantidad es positiva para sumar y negativa para descontar.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Ajuste registrado y aplicado"),
+			@ApiResponse(responseCode = "400", description = "La cantidad del ajuste es cero"),
+			@ApiResponse(responseCode = "404", description = "Item no encontrado")
+	})
+	@PostMapping("/ajustes")
+	public Mono<Void> adjust(@RequestBody StockAdjustmentDTO adjustment) {
+		return stockLedgerService.adjust(adjustment.getItemType(), adjustment.getItemId(),
+				adjustment.getQuantity(), adjustment.getReferenceId());
+	}
+
+	@Operation(summary = "Aplicar movimientos pendientes", description = "Aplica al stock los movimientos que quedaron registrados pero sin aplicar, por ejemplo tras una caída. Devuelve la cantidad de movimientos aplicados.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Reconciliación finalizada")
+	})
+	@PostMapping("/reconciliar")
+	public Mono<Long> reconcile() {
+		return stockLedgerService.reconcile();
+	}
+
+	@Operation(summary = "Tomar fotos de stock", description = "Guarda el saldo de cada ingrediente y producto calculado desde la foto anterior y el libro, para acotar el recálculo de saldos históricos. Devuelve la cantidad de fotos guardadas.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Fotos de stock guardadas")
+	})
+	@PostMapping("/snapshots")
+	public Mono<Long> takeSnapshots() {
+		return stockLedgerService.takeSnapshots();
+	}
+}
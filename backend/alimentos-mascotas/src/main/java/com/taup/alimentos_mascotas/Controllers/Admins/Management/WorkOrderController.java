@@ -1,6 +1,9 @@
 package com.taup.alimentos_mascotas.Controllers.Admins.Management;
 
 import com.taup.alimentos_mascotas.DTO.PagedResponse;
+import com.taup.alimentos_mascotas.DTO.WorkOrderPlanDTO;
+import com.taup.alimentos_mascotas.DTO.WorkOrderPlanRequestDTO;
+import com.taup.alimentos_mascotas.DTO.WorkOrderRowDTO;
 import com.taup.alimentos_mascotas.Models.Admins.Management.WorkOrder;
 import com.taup.alimentos_mascotas.Services.Admins.Management.WorkOrderService;
 import lombok.AllArgsConstructor;
@@ -23,8 +26,24 @@ public class WorkOrderController {
 	public Mono<PagedResponse<WorkOrder>> listAllPaged(
 			@RequestParam(defaultValue = "0") int page,
 			@RequestParam(defaultValue = "5") int size,
-			@RequestParam(required = false) String keyword) {
-		return workOrderService.listAllPaged(page, size, keyword);
+			@RequestParam(required = false) String keyword,
+			@RequestParam(defaultValue = "createdAt") String sortBy,
+			@RequestParam(defaultValue = "desc") String direction,
+			@RequestParam(defaultValue = "true") boolean withTotal) {
+		return workOrderService.listAllPaged(page, size, keyword, sortBy, direction, withTotal);
+	}
+
+	// Filas livianas para el tablero; fields=a,b,c limita las columnas
+	@GetMapping("/filas")
+	public Mono<PagedResponse<WorkOrderRowDTO>> listRows(
+			@RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "5") int size,
+			@RequestParam(required = false) String keyword,
+			@RequestParam(defaultValue = "createdAt") String sortBy,
+			@RequestParam(defaultValue = "desc") String direction,
+			@RequestParam(required = false) String fields,
+			@RequestParam(defaultValue = "true") boolean withTotal) {
+		return workOrderService.listRows(page, size, keyword, sortBy, direction, fields, withTotal);
 	}
 
 	@GetMapping("/obtener-todas")
@@ -39,6 +58,13 @@ public class WorkOrderController {
 		return workOrderService.save(workOrder, username);
 	}
 
+	@PostMapping("/planificar")
+	public Mono<WorkOrderPlanDTO> planWorkOrders(Authentication auth, @RequestBody WorkOrderPlanRequestDTO plan) {
+		String username = auth.getName();
+
+		return workOrderService.planWorkOrders(plan, username);
+	}
+
 	@PutMapping("/editar/{id}")
 	public Mono<WorkOrder> update(Authentication auth, @PathVariable String workOrderId, @RequestBody WorkOrder workOrder) {
 		String username = auth.getName();
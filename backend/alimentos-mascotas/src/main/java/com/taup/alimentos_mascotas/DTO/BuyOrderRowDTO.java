@@ -0,0 +1,27 @@
+package com.taup.alimentos_mascotas.DTO;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.taup.alimentos_mascotas.Utils.OrderStatus;
+import com.taup.alimentos_mascotas.Utils.PaymentMethod;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fila de la grilla de ventas: sin el detalle de productos, dirección ni notas del cliente.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BuyOrderRowDTO {
+	private String id;
+	private String customerId;
+	private BigDecimal totalAmount;
+	private Boolean isPaid;
+	private PaymentMethod paymentMethod;
+	private OrderStatus status;
+
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy'T'HH:mm:ss")
+	private LocalDateTime orderDate;
+}
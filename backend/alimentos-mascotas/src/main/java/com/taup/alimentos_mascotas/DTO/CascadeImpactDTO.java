@@ -0,0 +1,21 @@
+package com.taup.alimentos_mascotas.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Resultado del simulacro de eliminación: cuántos documentos de cada colección tocaría la cascada.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CascadeImpactDTO {
+	private String entity;
+	private String id;
+	private boolean exists;
+	private Map<String, Long> affectedDocuments;
+	private boolean transactional;
+}
@@ -0,0 +1,22 @@
+package com.taup.alimentos_mascotas.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.taup.alimentos_mascotas.Utils.MeasurementUnit;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Fila de la grilla de ingredientes del admin.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IngredientRowDTO {
+	private String id;
+	private String ingredientName;
+	private BigDecimal price;
+	private BigDecimal stock;
+	private MeasurementUnit measurementUnit;
+	private Set<String> providerId;
+}
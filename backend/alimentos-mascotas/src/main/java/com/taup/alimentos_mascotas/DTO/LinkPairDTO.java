@@ -0,0 +1,16 @@
+package com.taup.alimentos_mascotas.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Par a vincular o desvincular: receta-producto (ownerId = receta) o ingrediente-proveedor (ownerId = ingrediente).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LinkPairDTO {
+	private String ownerId;
+	private String linkedId;
+}
@@ -1,15 +1,27 @@
 package com.taup.alimentos_mascotas.DTO;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
 import java.util.List;
+import java.util.function.Function;
 
 @Data
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PagedResponse<T> {
 	private List<T> content;
-	private long totalElements;
+	private Long totalElements; // null cuando no se calcula el total (modo cursor)
 	private int page;
 	private int size;
-}
\ No newline at end of file
+	private String nextCursor; // Cursor para la siguiente página (solo en modo cursor)
+
+	public PagedResponse(List<T> content, Long totalElements, int page, int size) {
+		this(content, totalElements, page, size, null);
+	}
+
+	public <R> PagedResponse<R> map(Function<T, R> mapper) {
+		return new PagedResponse<>(content.stream().map(mapper).toList(), totalElements, page, size, nextCursor);
+	}
+}
@@ -1,8 +1,11 @@
 package com.taup.alimentos_mascotas.DTO;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.taup.alimentos_mascotas.Models.Admins.Management.ImageVariants;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Set;
 
 @Data
@@ -12,7 +15,12 @@ public class ProductFrontDTO {
 	private String productDescription;
 	private String productDetails;
 	private String imageUrl;
+	private ImageVariants imageVariants;
 	private BigDecimal sellingPrice;
 	private BigDecimal discountPercent;
 	private Set<String> categories;
+
+	// Solo para calcular el ETag, no se envía al cliente
+	@JsonIgnore
+	private LocalDateTime updatedAt;
 }
@@ -0,0 +1,31 @@
+package com.taup.alimentos_mascotas.DTO;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Fila de la grilla de productos del admin: sin detalles, reseñas ni campos de auditoría.
+ * Las columnas no pedidas con "fields" quedan nulas y no se serializan.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductRowDTO {
+	private String id;
+	private String productCode;
+	private String productName;
+	private BigDecimal sellingPrice;
+	private BigDecimal costPrice;
+	private BigDecimal discountPercent;
+	private BigDecimal stock;
+	private Set<String> categories;
+	private String recipeId;
+	private String imageUrl;
+
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy'T'HH:mm")
+	private LocalDateTime updatedAt;
+}
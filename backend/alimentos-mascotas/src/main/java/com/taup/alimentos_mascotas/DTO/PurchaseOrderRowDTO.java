@@ -0,0 +1,28 @@
+package com.taup.alimentos_mascotas.DTO;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.taup.alimentos_mascotas.Utils.OrderStatus;
+import com.taup.alimentos_mascotas.Utils.Priority;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fila de la grilla de órdenes de compra: sin el mapa de ingredientes ni las notas.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PurchaseOrderRowDTO {
+	private String id;
+	private String supplierName;
+	private BigDecimal totalAmount;
+	private Boolean isPaid;
+	private OrderStatus status;
+	private Priority priority;
+	private Boolean isAuthorized;
+
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy'T'HH:mm:ss")
+	private LocalDateTime orderDate;
+}
@@ -0,0 +1,23 @@
+package com.taup.alimentos_mascotas.DTO;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fila de la grilla de recetas del admin: sin instrucciones ni mapa de ingredientes.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RecipeRowDTO {
+	private String id;
+	private String recipeName;
+	private Integer estimatedPrepTime;
+	private BigDecimal estimatedServings;
+
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy'T'HH:mm")
+	private LocalDateTime updatedAt;
+}
@@ -0,0 +1,20 @@
+package com.taup.alimentos_mascotas.DTO;
+
+import com.taup.alimentos_mascotas.Utils.StockItemType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentDTO {
+	private StockItemType itemType;
+	private String itemId;
+	private BigDecimal quantity; // Positivo suma, negativo descuenta
+	private String referenceId; // Opcional: con la misma referencia el ajuste se registra una sola vez
+}
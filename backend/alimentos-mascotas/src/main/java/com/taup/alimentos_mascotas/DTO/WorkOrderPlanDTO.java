@@ -0,0 +1,23 @@
+package com.taup.alimentos_mascotas.DTO;
+
+import com.taup.alimentos_mascotas.Models.Admins.Management.WorkOrder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class WorkOrderPlanDTO {
+	// Órdenes de trabajo creadas por el plan
+	private List<WorkOrder> workOrders;
+
+	// Lista de materiales consolidada: ID de ingrediente -> cantidad total necesaria
+	private Map<String, Number> ingredientRequirements;
+
+	private BigDecimal totalEstimatedCost;
+}
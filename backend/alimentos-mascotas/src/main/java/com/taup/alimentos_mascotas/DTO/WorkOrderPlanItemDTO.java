@@ -0,0 +1,12 @@
+package com.taup.alimentos_mascotas.DTO;
+
+import com.taup.alimentos_mascotas.Utils.Priority;
+import lombok.Data;
+
+@Data
+public class WorkOrderPlanItemDTO {
+	private String productId;
+	private Number quantity;
+	private Priority priority;
+	private String notes;
+}
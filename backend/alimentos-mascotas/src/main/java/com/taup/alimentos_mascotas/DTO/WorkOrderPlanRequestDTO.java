@@ -0,0 +1,10 @@
+package com.taup.alimentos_mascotas.DTO;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class WorkOrderPlanRequestDTO {
+	private List<WorkOrderPlanItemDTO> items;
+}
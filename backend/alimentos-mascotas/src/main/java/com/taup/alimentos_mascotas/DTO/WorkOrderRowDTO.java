@@ -0,0 +1,31 @@
+package com.taup.alimentos_mascotas.DTO;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.taup.alimentos_mascotas.Utils.OrderStatus;
+import com.taup.alimentos_mascotas.Utils.Priority;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fila del tablero de órdenes de trabajo: sin los mapas de ingredientes estimados, usados y diferencias.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WorkOrderRowDTO {
+	private String id;
+	private String productId;
+	private BigDecimal quantityToDo;
+	private Priority priority;
+	private OrderStatus status;
+	private BigDecimal estimatedCost;
+	private BigDecimal realCost;
+
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy'T'HH:mm:ss")
+	private LocalDateTime completedAt;
+
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy'T'HH:mm")
+	private LocalDateTime createdAt;
+}
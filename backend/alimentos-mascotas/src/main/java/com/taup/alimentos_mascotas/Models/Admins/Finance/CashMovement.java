@@ -6,6 +6,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
@@ -13,10 +15,12 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
+@Document
 public class CashMovement {
 	@Id
 	private String id;
 
+	@Indexed
 	private String cashRegisterId;     // Caja a la que pertenece el movimiento
 	private String title;
 	private String concept;            // Ej: "Donación", "Gasto en limpieza", etc.
@@ -24,4 +28,5 @@ public class CashMovement {
 	private boolean isIncome;          // true = ingreso, false = egreso
 	private LocalDateTime date;
 	private String registeredBy;
+	private String invoiceId;          // Factura pagada, si el movimiento es un pago a proveedor
 }
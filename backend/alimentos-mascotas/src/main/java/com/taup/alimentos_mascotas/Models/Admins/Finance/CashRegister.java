@@ -3,7 +3,10 @@ package com.taup.alimentos_mascotas.Models.Admins.Finance;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -17,11 +20,15 @@ public class CashRegister {
 	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy'T'HH:mm")
 	private LocalDateTime startDate;
 
+	@Indexed
 	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy'T'HH:mm")
 	private LocalDateTime endDate;
 
+	// Acumuladores que se incrementan con $inc mientras la caja está abierta
+	@Field(targetType = FieldType.DECIMAL128)
 	private BigDecimal totalIncome; // Total de dinero ingresado
 
+	@Field(targetType = FieldType.DECIMAL128)
 	private BigDecimal totalExpense; // Total de dinero egresado
 
 	private String createdBy;
@@ -29,4 +36,8 @@ public class CashRegister {
 	private String closedBy;
 
 	private Boolean isClosed;
+
+	// true en las cajas abiertas desde que cada movimiento (manual o pago de factura) deja un CashMovement;
+	// las anteriores no lo tienen y se recalculan con las sumas por lastPaymentDate
+	private Boolean movementLedger;
 }
\ No newline at end of file
@@ -1,10 +1,13 @@
 package com.taup.alimentos_mascotas.Models.Admins.Finance.MP;
 
+import org.springframework.data.mongodb.core.index.TextIndexed;
+
 import lombok.Data;
 
 @Data
 public class Item {
     private String id;
+    @TextIndexed
     private String name;
     private String description;
     private String image;
@@ -3,18 +3,26 @@ package com.taup.alimentos_mascotas.Models.Admins.Finance.MP;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.Data;
 
 @Data
-@Document(collection = "payment_mp")
+// language "none": el índice de texto no aplica stemming ni stop words, se buscan las palabras tal cual
+@Document(collection = "payment_mp", language = "none")
 public class PaymentRequest {
     @Id
     private String id;
+    @Indexed
+    @TextIndexed
     private String status;
     private String status_detail;
+    @TextIndexed
     private String name;
+    @Indexed
+    @TextIndexed
     private String email;
     private Phone phone;
     private Address address;
@@ -0,0 +1,38 @@
+package com.taup.alimentos_mascotas.Models.Admins.Finance;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Document(collection = "monthly_balances")
+public class MonthlyCashBalance {
+	@Id
+	private String id; // Clave "yyyy-MM", ej: "2025-03"
+
+	private Integer year;
+
+	private Integer month;
+
+	@Field(targetType = FieldType.DECIMAL128)
+	private BigDecimal totalIncome;
+
+	@Field(targetType = FieldType.DECIMAL128)
+	private BigDecimal totalExpense;
+
+	private Long closedRegisters; // Cantidad de cierres de caja del mes
+
+	private LocalDateTime updatedAt;
+
+	// Revisión para las escrituras condicionales de CashRegisterService (no es @Version: se escribe con findAndModify)
+	private Long version;
+
+	public static String keyOf(int year, int month) {
+		return String.format("%04d-%02d", year, month);
+	}
+}
@@ -0,0 +1,24 @@
+package com.taup.alimentos_mascotas.Models.Admins.Management;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * URLs de las versiones reducidas de una imagen, generadas al subirla (ver ImageResizer).
+ * Cualquiera puede faltar si la imagen original no se pudo decodificar.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageVariants {
+
+	// Listados compactos y miniaturas del admin
+	private String thumbnailUrl;
+
+	// Tarjetas del catálogo
+	private String cardUrl;
+
+	// Vista de detalle del producto
+	private String detailUrl;
+}
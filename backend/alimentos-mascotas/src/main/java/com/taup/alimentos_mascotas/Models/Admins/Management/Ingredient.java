@@ -1,5 +1,6 @@
 package com.taup.alimentos_mascotas.Models.Admins.Management;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.taup.alimentos_mascotas.Models.ModelClass;
 import com.taup.alimentos_mascotas.Utils.MeasurementUnit;
 import jakarta.validation.constraints.Positive;
@@ -7,6 +8,8 @@ import jakarta.validation.constraints.Size;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.util.Set;
@@ -28,8 +31,15 @@ public class Ingredient extends ModelClass {
 
 	private Set<String> providerId;
 
+	// Saldo materializado del libro de stock: solo lo modifica StockLedgerService con $inc
 	@Positive
-	private Number stock;
+	@Field(targetType = FieldType.DECIMAL128)
+	private BigDecimal stock;
 
 	private MeasurementUnit measurementUnit;
+
+	// Movimientos de stock en curso de aplicación (ver StockLedgerService). Se mapea para que un save completo no los borre
+	@JsonIgnore
+	private Set<String> pendingMovements;
+
 }
@@ -1,5 +1,6 @@
 package com.taup.alimentos_mascotas.Models.Admins.Management;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.taup.alimentos_mascotas.Models.ModelClass;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
@@ -8,6 +9,8 @@ import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.util.Set;
@@ -30,6 +33,9 @@ public class Product extends ModelClass {
 	@NotBlank
 	private String imageUrl;
 
+	// Versiones reducidas de imageUrl para el catálogo
+	private ImageVariants imageVariants;
+
 	@Positive
 	private BigDecimal sellingPrice;
 
@@ -49,7 +55,24 @@ public class Product extends ModelClass {
 
 	private String recipeId;
 
+	// Saldo materializado del libro de stock: solo lo modifica StockLedgerService con $inc
 	@Positive
-	private Number stock;
+	@Field(targetType = FieldType.DECIMAL128)
+	private BigDecimal stock;
+
+	// ? Atributos de busqueda (los calcula ProductSearchIndexer al guardar)
+
+	// Prefijos normalizados de las palabras del nombre y la descripción
+	@JsonIgnore
+	@Indexed
+	private Set<String> searchPrefixes;
+
+	// Prefijos del nombre, usados para ordenar por relevancia
+	@JsonIgnore
+	private Set<String> namePrefixes;
+
+	// Movimientos de stock en curso de aplicación (ver StockLedgerService). Se mapea para que un save completo no los borre
+	@JsonIgnore
+	private Set<String> pendingMovements;
 
 }
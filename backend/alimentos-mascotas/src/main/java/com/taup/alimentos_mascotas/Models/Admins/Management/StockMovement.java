@@ -0,0 +1,50 @@
+package com.taup.alimentos_mascotas.Models.Admins.Management;
+
+import com.taup.alimentos_mascotas.Utils.StockItemType;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Movimiento del libro de stock. Solo se insertan, nunca se modifican ni se borran.
+ */
+@Data
+@Document(collection = "stock_movements")
+@CompoundIndexes({
+		// Suma de movimientos de un item en un rango de fechas
+		@CompoundIndex(name = "item_occurredAt", def = "{ 'itemType': 1, 'itemId': 1, 'occurredAt': 1 }"),
+		// Un mismo documento de origen no puede mover dos veces el stock de un item
+		@CompoundIndex(name = "reference_unique", def = "{ 'reason': 1, 'referenceId': 1, 'itemType': 1, 'itemId': 1 }",
+				unique = true, partialFilter = "{ 'referenceId': { $exists: true } }"),
+		// Movimientos cuyo saldo todavía no se aplicó (los busca la reconciliación)
+		@CompoundIndex(name = "pending_occurredAt", def = "{ 'applied': 1, 'occurredAt': 1 }",
+				partialFilter = "{ 'applied': false }")
+})
+public class StockMovement {
+	@Id
+	private String id;
+
+	private StockItemType itemType;
+
+	private String itemId;
+
+	// Positivo = entrada, negativo = salida
+	@Field(targetType = FieldType.DECIMAL128)
+	private BigDecimal quantity;
+
+	private String reason;             // Ej: "CONSUMO_ORDEN_TRABAJO", "PRODUCCION_ORDEN_TRABAJO"
+
+	private String referenceId;        // Documento que originó el movimiento (ej: ID de la orden de trabajo)
+
+	private LocalDateTime occurredAt;
+
+	// false mientras el $inc del saldo no se confirmó; los movimientos anteriores a este campo ya están aplicados
+	private Boolean applied;
+}
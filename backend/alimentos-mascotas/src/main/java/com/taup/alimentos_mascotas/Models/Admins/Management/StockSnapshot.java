@@ -0,0 +1,33 @@
+package com.taup.alimentos_mascotas.Models.Admins.Management;
+
+import com.taup.alimentos_mascotas.Utils.StockItemType;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Saldo de stock de un item en un momento dado. El saldo a una fecha se obtiene desde el último
+ * snapshot anterior sumando los movimientos posteriores, sin recorrer el libro desde el principio.
+ */
+@Data
+@Document(collection = "stock_snapshots")
+@CompoundIndex(name = "item_takenAt", def = "{ 'itemType': 1, 'itemId': 1, 'takenAt': -1 }")
+public class StockSnapshot {
+	@Id
+	private String id;
+
+	private StockItemType itemType;
+
+	private String itemId;
+
+	@Field(targetType = FieldType.DECIMAL128)
+	private BigDecimal balance;
+
+	private LocalDateTime takenAt;
+}
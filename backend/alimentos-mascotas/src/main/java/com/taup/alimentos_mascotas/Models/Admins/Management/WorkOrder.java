@@ -1,12 +1,17 @@
 package com.taup.alimentos_mascotas.Models.Admins.Management;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.taup.alimentos_mascotas.Models.ModelClass;
 import com.taup.alimentos_mascotas.Utils.OrderStatus;
 import com.taup.alimentos_mascotas.Utils.Priority;
 import jakarta.validation.constraints.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Map;
@@ -16,6 +21,12 @@ import java.time.LocalDateTime;
 
 @Data
 @Document(collection = "work_orders")
+// Índices para los ordenamientos del tablero de órdenes (ver WorkOrderService.SORTABLE_FIELDS)
+@CompoundIndexes({
+		@CompoundIndex(name = "createdAt_id", def = "{ 'createdAt': 1, '_id': 1 }"),
+		@CompoundIndex(name = "priorityRank_createdAt_id", def = "{ 'priorityRank': 1, 'createdAt': 1, '_id': 1 }"),
+		@CompoundIndex(name = "status_createdAt_id", def = "{ 'status': 1, 'createdAt': 1, '_id': 1 }")
+})
 public class WorkOrder extends ModelClass {
 	@Id
 	private String id;
@@ -35,6 +46,11 @@ public class WorkOrder extends ModelClass {
 
 	private Priority priority;
 
+	// Priority.getRank() persistido, para ordenar por urgencia; se mantiene desde setPriority
+	@JsonIgnore
+	@Setter(AccessLevel.NONE)
+	private Integer priorityRank;
+
 	private OrderStatus status;
 
 	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy'T'HH:mm:ss")
@@ -61,6 +77,9 @@ public class WorkOrder extends ModelClass {
 
 	@Positive
 	private Number completedQuantity;
-}
-
 
+	public void setPriority(Priority priority) {
+		this.priority = priority;
+		this.priorityRank = priority != null ? priority.getRank() : null;
+	}
+}
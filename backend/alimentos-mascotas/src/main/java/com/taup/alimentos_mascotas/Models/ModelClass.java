@@ -3,6 +3,7 @@ package com.taup.alimentos_mascotas.Models;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.data.annotation.Version;
 
 import java.time.LocalDateTime;
 
@@ -19,4 +20,8 @@ public abstract class ModelClass {
     private String modifiedBy;
 
     private String createdBy;
+
+    // Control de concurrencia optimista: un save con una versión vieja falla en lugar de pisar cambios ajenos
+    @Version
+    private Long version;
 }
\ No newline at end of file
@@ -1,10 +1,13 @@
 package com.taup.alimentos_mascotas.Repositories.Admins.Finance;
 
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 
 import com.taup.alimentos_mascotas.Models.Admins.Finance.CashMovement;
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -12,4 +15,11 @@ import org.springframework.stereotype.Repository;
 public interface CashMovementRepository extends ReactiveMongoRepository<CashMovement, String> {
     Flux<CashMovement> findByTitleContainingIgnoreCaseAndDateBetween(
         String keyword, LocalDateTime from, LocalDateTime to);
+
+    // Suma de los movimientos de una caja (ingresos o egresos); se suma en Decimal128 como los acumuladores
+    @Aggregation(pipeline = {
+        "{ $match: { 'cashRegisterId': ?0, 'isIncome': ?1 } }",
+        "{ $group: { _id: null, total: { $sum: { $toDecimal: '$amount' } } } }"
+    })
+    Mono<Decimal128> sumAmountByCashRegisterIdAndIsIncome(String cashRegisterId, boolean isIncome);
 }
@@ -1,11 +1,45 @@
 package com.taup.alimentos_mascotas.Repositories.Admins.Finance;
 
 import com.taup.alimentos_mascotas.Models.Admins.Finance.CashRegister;
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+
 @Repository
 public interface CashRegisterRepository extends ReactiveMongoRepository<CashRegister, String> {
     Mono<com.taup.alimentos_mascotas.Models.Admins.Finance.CashRegister> findFirstByIsClosedFalse();
-}
\ No newline at end of file
+
+    // Cierres de caja dentro del rango [from, to)
+    @Query("{ 'isClosed': true, 'endDate': { $gte: ?0, $lt: ?1 } }")
+    Flux<CashRegister> findClosedByEndDateBetween(LocalDateTime from, LocalDateTime to);
+
+    // Acumuladores de una caja, solo mientras siga abierta (retornan la cantidad de cajas modificadas)
+    @Query("{ '_id': ?0, 'isClosed': false }")
+    @Update("{ '$inc': { 'totalIncome': ?1 } }")
+    Mono<Long> incrementOpenTotalIncome(String cashRegisterId, Decimal128 amount);
+
+    @Query("{ '_id': ?0, 'isClosed': false }")
+    @Update("{ '$inc': { 'totalExpense': ?1 } }")
+    Mono<Long> incrementOpenTotalExpense(String cashRegisterId, Decimal128 amount);
+
+    // Corrige los acumuladores de una caja esté abierta o cerrada (compensación de un movimiento anulado)
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$inc': { 'totalIncome': ?1, 'totalExpense': ?2 } }")
+    Mono<Long> incrementTotalsById(String cashRegisterId, Decimal128 income, Decimal128 expense);
+
+    // Cierra la caja solo si sigue abierta, sin pisar los acumuladores
+    @Query("{ '_id': ?0, 'isClosed': false }")
+    @Update("{ '$set': { 'isClosed': true, 'endDate': ?1, 'closedBy': ?2 } }")
+    Mono<Long> closeById(String cashRegisterId, LocalDateTime endDate, String closedBy);
+
+    // Reemplaza los acumuladores al recalcular una caja
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$set': { 'totalIncome': ?1, 'totalExpense': ?2 } }")
+    Mono<Long> setTotalsById(String cashRegisterId, Decimal128 totalIncome, Decimal128 totalExpense);
+}
@@ -1,14 +1,21 @@
 package com.taup.alimentos_mascotas.Repositories.Admins.Finance;
 
 import com.taup.alimentos_mascotas.Models.Admins.Finance.Invoice;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.mongodb.repository.Query;
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
-import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
 
 @Repository
 public interface InvoiceRepository extends ReactiveMongoRepository<Invoice, String> {
-  @Query("{}")
-  Flux<Invoice> findInvoicesPaged(PageRequest pageRequest);
-}
\ No newline at end of file
+
+  // Suma de lo pagado en facturas dentro del rango [start, end), en Decimal128 para no perder precisión
+  @Aggregation(pipeline = {
+      "{ $match: { 'lastPaymentDate': { $gte: ?0, $lt: ?1 } } }",
+      "{ $group: { _id: null, total: { $sum: { $toDecimal: '$paidAmount' } } } }"
+  })
+  Mono<Decimal128> sumPaidAmountByLastPaymentDateBetween(LocalDateTime start, LocalDateTime end);
+}
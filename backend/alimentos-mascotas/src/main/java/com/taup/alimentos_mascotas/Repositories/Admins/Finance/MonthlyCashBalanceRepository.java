@@ -0,0 +1,9 @@
+package com.taup.alimentos_mascotas.Repositories.Admins.Finance;
+
+import com.taup.alimentos_mascotas.Models.Admins.Finance.MonthlyCashBalance;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MonthlyCashBalanceRepository extends ReactiveMongoRepository<MonthlyCashBalance, String> {
+}
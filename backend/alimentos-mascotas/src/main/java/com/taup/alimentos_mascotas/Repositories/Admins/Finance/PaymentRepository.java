@@ -1,7 +1,9 @@
 package com.taup.alimentos_mascotas.Repositories.Admins.Finance;
 
 import com.taup.alimentos_mascotas.Models.Admins.Finance.Payment;
+import org.bson.types.Decimal128;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
@@ -9,6 +11,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Repository
 public interface PaymentRepository extends ReactiveMongoRepository<Payment, String> {
@@ -41,4 +44,11 @@ public interface PaymentRepository extends ReactiveMongoRepository<Payment, Stri
 
 	@Query(value = "{ 'studentId': ?0 }", count = true)
 	Mono<Long> countByStudentId(String studentId);
+
+	// Metodos de agregacion (suma de lo cobrado en un rango [start, end), en Decimal128)
+	@Aggregation(pipeline = {
+			"{ $match: { 'lastPaymentDate': { $gte: ?0, $lt: ?1 } } }",
+			"{ $group: { _id: null, total: { $sum: { $toDecimal: '$paidAmount' } } } }"
+	})
+	Mono<Decimal128> sumPaidAmountByLastPaymentDateBetween(LocalDateTime start, LocalDateTime end);
 }
@@ -0,0 +1,34 @@
+package com.taup.alimentos_mascotas.Repositories.Admins.Management;
+
+import com.taup.alimentos_mascotas.Models.Admins.Management.StockMovement;
+import com.taup.alimentos_mascotas.Utils.StockItemType;
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.repository.Aggregation;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface StockMovementRepository extends ReactiveMongoRepository<StockMovement, String> {
+
+	// Suma de movimientos de un item con occurredAt en (from, to]. Decimal128 y no BigDecimal: Spring Data
+	// trataría a BigDecimal como entidad y no podría crear la consulta
+	@Aggregation(pipeline = {
+			"{ $match: { 'itemType': ?0, 'itemId': ?1, 'occurredAt': { $gt: ?2, $lte: ?3 } } }",
+			"{ $group: { _id: null, total: { $sum: '$quantity' } } }"
+	})
+	Mono<Decimal128> sumQuantityBetween(String itemType, String itemId, LocalDateTime from, LocalDateTime to);
+
+	// Suma de los movimientos de un item que ya están en el saldo materializado (applied ausente o true)
+	@Aggregation(pipeline = {
+			"{ $match: { 'itemType': ?0, 'itemId': ?1, 'applied': { $ne: false } } }",
+			"{ $group: { _id: null, total: { $sum: '$quantity' } } }"
+	})
+	Mono<Decimal128> sumAppliedQuantity(String itemType, String itemId);
+
+	Flux<StockMovement> findByItemTypeAndItemIdAndOccurredAtBetweenOrderByOccurredAtAsc(
+			StockItemType itemType, String itemId, LocalDateTime from, LocalDateTime to);
+}
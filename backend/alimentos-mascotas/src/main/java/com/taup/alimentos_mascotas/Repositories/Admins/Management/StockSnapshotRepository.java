@@ -0,0 +1,18 @@
+package com.taup.alimentos_mascotas.Repositories.Admins.Management;
+
+import com.taup.alimentos_mascotas.Models.Admins.Management.StockSnapshot;
+import com.taup.alimentos_mascotas.Utils.StockItemType;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface StockSnapshotRepository extends ReactiveMongoRepository<StockSnapshot, String> {
+
+	Mono<StockSnapshot> findFirstByItemTypeAndItemIdAndTakenAtLessThanEqualOrderByTakenAtDesc(
+			StockItemType itemType, String itemId, LocalDateTime takenAt);
+
+	Mono<StockSnapshot> findFirstByItemTypeAndItemIdOrderByTakenAtDesc(StockItemType itemType, String itemId);
+}
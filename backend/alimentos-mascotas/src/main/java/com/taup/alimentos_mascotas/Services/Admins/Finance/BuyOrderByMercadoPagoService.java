@@ -1,19 +1,31 @@
 package com.taup.alimentos_mascotas.Services.Admins.Finance;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import com.taup.alimentos_mascotas.DTO.PagedResponse;
+import com.taup.alimentos_mascotas.Exceptions.MonoEx;
 import com.taup.alimentos_mascotas.Models.Admins.Finance.MP.PaymentRequest;
 import com.taup.alimentos_mascotas.Repositories.Admins.Finance.BuyOrderByMercadoPagoRepository;
+import com.taup.alimentos_mascotas.Services.Common.PagingService;
 
 import lombok.RequiredArgsConstructor;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class BuyOrderByMercadoPagoService {
     private final BuyOrderByMercadoPagoRepository buyOrderByMercadoPagoRepository;
+    private final PagingService pagingService;
 
     public Mono<PaymentRequest> save(PaymentRequest paymentRequest){
         return buyOrderByMercadoPagoRepository.save(paymentRequest);
@@ -23,33 +35,32 @@ public class BuyOrderByMercadoPagoService {
         return buyOrderByMercadoPagoRepository.findById(paymentId);
     }
 
-    public Mono<PagedResponse<PaymentRequest>> listAllPaged(int page, int size, String keyword) {
-    Flux<PaymentRequest> payments;
-    Mono<Long> totalMono;
-
-    if (keyword != null && !keyword.isBlank()) {
-        payments = buyOrderByMercadoPagoRepository.findAll()
-            .filter(payment -> payment.toString().toLowerCase().contains(keyword.toLowerCase()))
-            .skip((long) page * size)
-            .take(size);
-        totalMono = buyOrderByMercadoPagoRepository.findAll()
-            .filter(payment -> payment.toString().toLowerCase().contains(keyword.toLowerCase()))
-            .count();
-    } else {
-        payments = buyOrderByMercadoPagoRepository.findAll()
-            .skip((long) page * size)
-            .take(size);
-        totalMono = buyOrderByMercadoPagoRepository.count();
+    /**
+     * Página de pagos filtrada en la base. status y email son coincidencias exactas sobre índices;
+     * keyword usa el índice de texto (status, name, email e items.name) y coincide por palabra completa.
+     * Página y total salen de una sola agregación con $facet.
+     */
+    public Mono<PagedResponse<PaymentRequest>> listAllPaged(int page, int size, String keyword, String status, String email,
+                                                          boolean withTotal) {
+        if (page < 0 || size < 1) {
+            return MonoEx.monoError(HttpStatus.BAD_REQUEST, "La página debe ser 0 o mayor y el tamaño mayor a 0.");
+        }
+
+        List<AggregationOperation> operations = new ArrayList<>();
+        // $text solo puede ir en la primera etapa del pipeline
+        if (keyword != null && !keyword.isBlank()) {
+            operations.add(Aggregation.match(TextCriteria.forDefaultLanguage().matching(keyword.trim())));
+        }
+        if (status != null && !status.isBlank()) {
+            operations.add(Aggregation.match(Criteria.where("status").is(status.trim())));
+        }
+        if (email != null && !email.isBlank()) {
+            operations.add(Aggregation.match(Criteria.where("email").is(email.trim())));
+        }
+        operations.add(Aggregation.sort(Sort.Direction.DESC, "_id"));
+
+        String filterKey = keyword + "|" + status + "|" + email;
+        return pagingService.findPage(PaymentRequest.class, operations, filterKey, PageRequest.of(page, size), withTotal);
     }
 
-    return payments.collectList()
-        .zipWith(totalMono)
-        .map(tuple -> new PagedResponse<PaymentRequest>(
-            tuple.getT1(),
-            tuple.getT2(),
-            page,
-            size
-        ));
-}
-    
 }
@@ -4,13 +4,24 @@ package com.taup.alimentos_mascotas.Services.Admins.Finance;
 import com.taup.alimentos_mascotas.DTO.CashMovementRequestDTO;
 import com.taup.alimentos_mascotas.Models.Admins.Finance.CashMovement;
 import com.taup.alimentos_mascotas.Models.Admins.Finance.CashRegister;
+import com.taup.alimentos_mascotas.Models.Admins.Finance.MonthlyCashBalance;
 import com.taup.alimentos_mascotas.Repositories.Admins.Finance.CashMovementRepository;
 import com.taup.alimentos_mascotas.Repositories.Admins.Finance.CashRegisterRepository;
 import com.taup.alimentos_mascotas.Repositories.Admins.Finance.InvoiceRepository;
+import com.taup.alimentos_mascotas.Repositories.Admins.Finance.MonthlyCashBalanceRepository;
 import com.taup.alimentos_mascotas.Repositories.Admins.Finance.PaymentRepository;
 import com.taup.alimentos_mascotas.Services.Profiles.UserService;
 import com.taup.alimentos_mascotas.Utils.MonthlyBalance;
+import com.taup.alimentos_mascotas.Utils.OptimisticRetry;
+import com.taup.alimentos_mascotas.Utils.RecipeScaler;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.Decimal128;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
@@ -21,14 +32,17 @@ import reactor.core.publisher.Mono;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class CashRegisterService {
 	private final CashRegisterRepository cashRegisterRepo;
 	private final CashMovementRepository cashMovementRepo;
+	private final MonthlyCashBalanceRepository monthlyBalanceRepo;
 	private final PaymentRepository paymentRepo;
 	private final InvoiceRepository invoiceRepo;
+	private final ReactiveMongoTemplate mongoTemplate;
 	private final UserService userService;
 
 	public Mono<CashRegister> openCashRegister(String username) {
@@ -45,6 +59,9 @@ public class CashRegisterService {
 								CashRegister newCashRegister = new CashRegister();
 								newCashRegister.setStartDate(LocalDateTime.now());
 								newCashRegister.setIsClosed(false);
+								newCashRegister.setTotalIncome(BigDecimal.ZERO);
+								newCashRegister.setTotalExpense(BigDecimal.ZERO);
+								newCashRegister.setMovementLedger(true);
 								newCashRegister.setCreatedBy(name.getName() + " " + name.getSurname());
 								return cashRegisterRepo.save(newCashRegister);
 							})
@@ -80,145 +97,140 @@ public class CashRegisterService {
 							.switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
 									"No existe una caja abierta para cerrar.")))
 							.flatMap(cashRegister -> {
-								// Calcular ingresos
-								Mono<BigDecimal> totalIncomeMono = paymentRepo.findAll()
-										.filter(payment -> payment.getLastPaymentDate() != null)
-										.filter(payment -> payment.getLastPaymentDate()
-												.isAfter(cashRegister.getStartDate()))
-										.filter(payment -> payment.getLastPaymentDate()
-												.isBefore(LocalDateTime.now()))
-										.reduce(BigDecimal.ZERO,
-												(total, payment) -> total.add(BigDecimal
-														.valueOf(payment.getPaidAmount())));
-
-								// Calcular egresos
-								Mono<BigDecimal> totalExpenseMono = invoiceRepo.findAll()
-										.filter(invoice -> invoice.getLastPaymentDate() != null)
-										.filter(invoice -> invoice.getLastPaymentDate()
-												.isAfter(cashRegister.getStartDate()))
-										.filter(invoice -> invoice.getLastPaymentDate()
-												.isBefore(LocalDateTime.now()))
-										.reduce(BigDecimal.ZERO,
-												(total, invoice) -> total.add(BigDecimal
-														.valueOf(invoice.getPaidAmount())));
-
-								return Mono.zip(totalIncomeMono, totalExpenseMono)
-										.flatMap(tuple -> {
-											BigDecimal totalIncome = tuple.getT1();
-											BigDecimal totalExpense = tuple.getT2();
-
-											cashRegister.setEndDate(LocalDateTime.now());
-											cashRegister.setTotalIncome(totalIncome);
-											cashRegister.setTotalExpense(totalExpense);
-											cashRegister.setIsClosed(true);
-											cashRegister.setClosedBy(username);
-
-											return cashRegisterRepo.save(cashRegister);
-										});
+								// Los totales ya vienen acumulados en la caja, solo se marca como cerrada
+								return cashRegisterRepo.closeById(cashRegister.getId(), LocalDateTime.now(), username)
+										.flatMap(modified -> {
+											if (modified == 0) {
+												return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+														"La caja ya fue cerrada."));
+											}
+											return cashRegisterRepo.findById(cashRegister.getId());
+										})
+										.map(this::withDefaultTotals)
+										.flatMap(closedRegister -> rebuildMonthlyBalance(closedRegister.getEndDate().getYear(),
+														closedRegister.getEndDate().getMonthValue())
+												.thenReturn(closedRegister));
 							});
 				});
 
 	}
 
 	public Mono<MonthlyBalance> getMonthlyBalance(int year, int month) {
-		LocalDate currentDate = LocalDate.now();
-		if (year < 1900 || year > LocalDate.now().getYear() + 1) {
-			return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
-					"El año proporcionado no es válido."));
-		}
-		if (month < 1 || month > 12) {
-			return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
-					"El mes proporcionado no es válido. Debe estar entre 1 y 12."));
-		}
-		if (year > currentDate.getYear()
-				|| (year == currentDate.getYear() && month > currentDate.getMonthValue())) {
-			return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
-					"El mes proporcionado no puede ser posterior al mes actual."));
-		}
-
-		LocalDateTime startOfMonth = LocalDateTime.of(year, month, 1, 0, 0);
-		LocalDateTime endOfMonth = startOfMonth.plusMonths(1).minusSeconds(1);
+		// Los totales salen del resumen mensual; si el mes no tiene resumen se reconstruye una vez
+		return validatePeriod(year, month)
+				.then(monthlyBalanceRepo.findById(MonthlyCashBalance.keyOf(year, month)))
+				.switchIfEmpty(Mono.defer(() -> rebuildMonthlyBalance(year, month)))
+				.flatMap(monthlyCashBalance -> {
+					LocalDateTime startOfMonth = LocalDateTime.of(year, month, 1, 0, 0);
+					LocalDateTime startOfNextMonth = startOfMonth.plusMonths(1);
 
-		return cashRegisterRepo.findAll()
-				.filter(cashRegister -> cashRegister.getEndDate() != null)
-				.filter(cashRegister -> !cashRegister.getEndDate().isBefore(startOfMonth)
-						&& !cashRegister.getEndDate().isAfter(endOfMonth))
-				.collectList()
-				.flatMap(cashRegisters -> {
-					if (cashRegisters.isEmpty()) {
+					if (monthlyCashBalance.getClosedRegisters() == null || monthlyCashBalance.getClosedRegisters() == 0) {
 						return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND,
 								"No se encontraron cierres de caja para el mes especificado."));
 					}
 
-					BigDecimal totalIncome = BigDecimal.ZERO;
-					BigDecimal totalExpense = BigDecimal.ZERO;
-
-					for (CashRegister cashRegister : cashRegisters) {
-						totalIncome = totalIncome.add(cashRegister.getTotalIncome());
-						totalExpense = totalExpense.add(cashRegister.getTotalExpense());
-					}
-
-					return Mono.just(new MonthlyBalance(cashRegisters, totalIncome, totalExpense));
+					return cashRegisterRepo.findClosedByEndDateBetween(startOfMonth, startOfNextMonth)
+							.collectList()
+							.map(cashRegisters -> new MonthlyBalance(cashRegisters,
+									monthlyCashBalance.getTotalIncome(),
+									monthlyCashBalance.getTotalExpense()));
 				});
 	}
 
+	/**
+	 * Recalcula desde cero el resumen mensual a partir de los cierres de caja del mes.
+	 * Lo usan también los cierres de caja: cada cálculo lee la revisión del resumen antes de sumar los cierres
+	 * y solo escribe si nadie lo cambió en el medio; si otro cálculo ganó, se vuelve a leer y sumar.
+	 * Así el último resumen guardado siempre incluye todos los cierres confirmados antes de su suma.
+	 */
+	public Mono<MonthlyCashBalance> rebuildMonthlyBalance(int year, int month) {
+		return validatePeriod(year, month)
+				.then(monthlyBalanceRepo.findById(MonthlyCashBalance.keyOf(year, month))
+						.map(Optional::of)
+						.defaultIfEmpty(Optional.empty())
+						.flatMap(current -> summarizeMonth(year, month)
+								.flatMap(summary -> writeIfUnchanged(current, summary)))
+						.retryWhen(OptimisticRetry.onConflict()));
+	}
+
 	public Mono<CashRegister> getOpenCashRegister() {
 		return cashRegisterRepo.findFirstByIsClosedFalse()
 				.switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND,
 						"No hay una caja abierta actualmente.")))
+				.map(cashRegister -> {
+					// Vista provisional con los acumuladores de la caja, NO CIERRA LA CAJA
+					CashRegister provisionalView = withDefaultTotals(cashRegister);
+					provisionalView.setEndDate(LocalDateTime.now());
+					provisionalView.setClosedBy("SIN CERRAR");
+					return provisionalView;
+				});
+	}
+
+	/**
+	 * Recalcula desde cero los totales de una caja (auditoría o reconstrucción), con sumas hechas en MongoDB.
+	 * Los cobros (payments) no generan movimientos de caja, así que siempre salen de la suma de paidAmount
+	 * por lastPaymentDate dentro de [inicio, cierre) de la caja. Los egresos y los movimientos manuales salen
+	 * de los CashMovement solo en las cajas que los registran (movementLedger); en las anteriores, los egresos
+	 * se suman por lastPaymentDate de las facturas, como se calculaban al cerrar.
+	 */
+	public Mono<CashRegister> rebuildTotals(String cashRegisterId) {
+		return cashRegisterRepo.findById(cashRegisterId)
+				.switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND,
+						"No se encontró la caja con ID: " + cashRegisterId)))
 				.flatMap(cashRegister -> {
-					// Calcular ingresos
-					cashRegister.getStartDate();
-					System.out.println("caja: " + cashRegister.getStartDate());
-					Mono<BigDecimal> totalIncomeMono = paymentRepo.findAll()
-							.filter(payment -> payment.getLastPaymentDate() != null)
-							.filter(payment -> payment.getLastPaymentDate()
-									.isAfter(cashRegister.getStartDate()))
-							.filter(payment -> payment.getLastPaymentDate()
-									.isBefore(LocalDateTime.now()))
-							.reduce(BigDecimal.ZERO,
-									(total, payment) -> total.add(BigDecimal
-											.valueOf(payment.getPaidAmount())));
-
-					// Calcular egresos
-					Mono<BigDecimal> totalExpenseMono = invoiceRepo.findAll()
-							.filter(invoice -> invoice.getLastPaymentDate() != null)
-							.filter(invoice -> invoice.getLastPaymentDate()
-									.isAfter(cashRegister.getStartDate()))
-							.filter(invoice -> invoice.getLastPaymentDate()
-									.isBefore(LocalDateTime.now())) // de los
-							// filtros
-							.reduce(BigDecimal.ZERO,
-									(total, invoice) -> total.add(BigDecimal
-											.valueOf(invoice.getPaidAmount())));
-
-					// Combinar ingresos y egresos para la vista provisional
+					if (cashRegister.getStartDate() == null) {
+						return Mono.error(new ResponseStatusException(HttpStatus.CONFLICT,
+								"La caja no tiene fecha de apertura, no se pueden recalcular sus totales."));
+					}
+					LocalDateTime start = cashRegister.getStartDate();
+					LocalDateTime end = cashRegister.getEndDate() != null ? cashRegister.getEndDate() : LocalDateTime.now();
+					Mono<BigDecimal> collectedPayments = sumOf(paymentRepo.sumPaidAmountByLastPaymentDateBetween(start, end));
+
+					Mono<BigDecimal> totalIncomeMono;
+					Mono<BigDecimal> totalExpenseMono;
+					if (Boolean.TRUE.equals(cashRegister.getMovementLedger())) {
+						totalIncomeMono = Mono.zip(collectedPayments,
+										sumOf(cashMovementRepo.sumAmountByCashRegisterIdAndIsIncome(cashRegisterId, true)))
+								.map(tuple -> tuple.getT1().add(tuple.getT2()));
+						totalExpenseMono = sumOf(cashMovementRepo.sumAmountByCashRegisterIdAndIsIncome(cashRegisterId, false));
+					} else {
+						totalIncomeMono = collectedPayments;
+						totalExpenseMono = sumOf(invoiceRepo.sumPaidAmountByLastPaymentDateBetween(start, end));
+					}
+
 					return Mono.zip(totalIncomeMono, totalExpenseMono)
-							.map(tuple -> {
-								BigDecimal totalIncome = tuple.getT1();
-								BigDecimal totalExpense = tuple.getT2();
-
-								System.out.println(totalExpense);
-								System.out.println(totalIncome);
-
-								CashRegister provisionalView = new CashRegister();
-								provisionalView.setId(cashRegister.getId());
-								provisionalView.setStartDate(
-										cashRegister.getStartDate());
-								provisionalView.setEndDate(LocalDateTime.now());
-								provisionalView.setTotalIncome(totalIncome);
-								provisionalView.setTotalExpense(totalExpense);
-								provisionalView.setIsClosed(false); // Vista
-								// provisional, NO
-								// CIERRA LA CAJA
-								provisionalView.setCreatedBy(
-										cashRegister.getCreatedBy());
-								provisionalView.setClosedBy("SIN CERRAR");
-								return provisionalView;
+							.flatMap(tuple -> cashRegisterRepo.setTotalsById(cashRegisterId,
+											new Decimal128(tuple.getT1()), new Decimal128(tuple.getT2()))
+									.then(cashRegisterRepo.findById(cashRegisterId)))
+							.flatMap(rebuiltRegister -> {
+								// Si la caja ya estaba cerrada, su mes también debe reflejar los nuevos totales
+								if (!Boolean.TRUE.equals(rebuiltRegister.getIsClosed()) || rebuiltRegister.getEndDate() == null) {
+									return Mono.just(rebuiltRegister);
+								}
+								return rebuildMonthlyBalance(rebuiltRegister.getEndDate().getYear(),
+										rebuiltRegister.getEndDate().getMonthValue())
+										.thenReturn(rebuiltRegister);
 							});
 				});
 	}
 
+	/**
+	 * Suma un ingreso a los acumuladores de la caja indicada. Falla si esa caja ya no está abierta,
+	 * aunque en el medio se haya abierto otra.
+	 */
+	public Mono<Void> registerIncome(String cashRegisterId, BigDecimal amount) {
+		return cashRegisterRepo.incrementOpenTotalIncome(cashRegisterId, new Decimal128(amount))
+				.flatMap(this::requireOpenCashRegister);
+	}
+
+	/**
+	 * Suma un egreso a los acumuladores de la caja indicada, con la misma condición que registerIncome.
+	 */
+	public Mono<Void> registerExpense(String cashRegisterId, BigDecimal amount) {
+		return cashRegisterRepo.incrementOpenTotalExpense(cashRegisterId, new Decimal128(amount))
+				.flatMap(this::requireOpenCashRegister);
+	}
+
 	public Flux<CashMovement> getItems(int page, int size, String keyword, LocalDateTime from, LocalDateTime to) {
 		int skip = page * size;
 	
@@ -241,13 +253,165 @@ public class CashRegisterService {
                     movement.setAmount(request.getAmount());
                     movement.setDate(LocalDateTime.now());
                     movement.setRegisteredBy(fullName.getName() + " " + fullName.getSurname());
-                    return cashMovementRepo.save(movement);
+
+                    return saveAndAccumulate(movement);
                 })
         );
 	}
 
+	/**
+	 * Registra el pago de una factura como egreso de la caja abierta: un movimiento por pago,
+	 * que es lo que después suma rebuildTotals.
+	 */
+	public Mono<CashMovement> registerInvoicePayment(String invoiceId, double amount, String registeredBy) {
+		return cashRegisterRepo.findFirstByIsClosedFalse()
+				.switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "No hay una caja abierta actualmente.")))
+				.flatMap(cashRegister -> {
+					CashMovement movement = new CashMovement();
+					movement.setCashRegisterId(cashRegister.getId());
+					movement.setTitle("Pago de factura");
+					movement.setConcept("Pago de la factura " + invoiceId);
+					movement.setInvoiceId(invoiceId);
+					movement.setIncome(false);
+					movement.setAmount(amount);
+					movement.setDate(LocalDateTime.now());
+					movement.setRegisteredBy(registeredBy);
+
+					return saveAndAccumulate(movement);
+				});
+	}
+
+	/**
+	 * Anula un movimiento ya acumulado (por ejemplo, el pago de una factura que no se pudo aplicar):
+	 * descuenta su importe de la caja, borra el movimiento y, si la caja ya se cerró, recalcula su mes.
+	 */
+	public Mono<Void> cancelMovement(CashMovement movement) {
+		Decimal128 amount = new Decimal128(BigDecimal.valueOf(movement.getAmount()).negate());
+		Decimal128 zero = new Decimal128(BigDecimal.ZERO);
+
+		return cashRegisterRepo.incrementTotalsById(movement.getCashRegisterId(),
+						movement.isIncome() ? amount : zero, movement.isIncome() ? zero : amount)
+				.then(cashMovementRepo.delete(movement))
+				.then(cashRegisterRepo.findById(movement.getCashRegisterId()))
+				.filter(cashRegister -> Boolean.TRUE.equals(cashRegister.getIsClosed()) && cashRegister.getEndDate() != null)
+				.flatMap(closedRegister -> rebuildMonthlyBalance(closedRegister.getEndDate().getYear(),
+						closedRegister.getEndDate().getMonthValue()))
+				.then();
+	}
+
 	public Mono<Void> deleteAllCashRegisters() {
 		return cashRegisterRepo.deleteAll().then(Mono.empty());
 	}
 
+	// ? Metodos locales
+
+	// Un año razonable y un mes que ya empezó; es la única validación del período (el controller no repite reglas)
+	private Mono<Void> validatePeriod(int year, int month) {
+		LocalDate currentDate = LocalDate.now();
+		if (year < 1900) {
+			return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"El año proporcionado no es válido."));
+		}
+		if (month < 1 || month > 12) {
+			return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"El mes proporcionado no es válido. Debe estar entre 1 y 12."));
+		}
+		if (year > currentDate.getYear()
+				|| (year == currentDate.getYear() && month > currentDate.getMonthValue())) {
+			return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"El mes proporcionado no puede ser posterior al mes actual."));
+		}
+		return Mono.empty();
+	}
+
+	private Mono<MonthlyCashBalance> summarizeMonth(int year, int month) {
+		LocalDateTime startOfMonth = LocalDateTime.of(year, month, 1, 0, 0);
+		LocalDateTime startOfNextMonth = startOfMonth.plusMonths(1);
+
+		return cashRegisterRepo.findClosedByEndDateBetween(startOfMonth, startOfNextMonth)
+				.map(this::withDefaultTotals)
+				.collectList()
+				.map(cashRegisters -> {
+					BigDecimal totalIncome = BigDecimal.ZERO;
+					BigDecimal totalExpense = BigDecimal.ZERO;
+
+					for (CashRegister cashRegister : cashRegisters) {
+						totalIncome = totalIncome.add(cashRegister.getTotalIncome());
+						totalExpense = totalExpense.add(cashRegister.getTotalExpense());
+					}
+
+					MonthlyCashBalance monthlyCashBalance = new MonthlyCashBalance();
+					monthlyCashBalance.setId(MonthlyCashBalance.keyOf(year, month));
+					monthlyCashBalance.setYear(year);
+					monthlyCashBalance.setMonth(month);
+					monthlyCashBalance.setTotalIncome(totalIncome);
+					monthlyCashBalance.setTotalExpense(totalExpense);
+					monthlyCashBalance.setClosedRegisters((long) cashRegisters.size());
+					monthlyCashBalance.setUpdatedAt(LocalDateTime.now());
+					return monthlyCashBalance;
+				});
+	}
+
+	/**
+	 * Guarda el resumen solo si sigue en la revisión leída antes de sumar; si no, emite un conflicto
+	 * para que OptimisticRetry repita lectura y suma.
+	 */
+	private Mono<MonthlyCashBalance> writeIfUnchanged(Optional<MonthlyCashBalance> current, MonthlyCashBalance summary) {
+		if (current.isEmpty()) {
+			summary.setVersion(0L);
+			return mongoTemplate.insert(summary)
+					.onErrorMap(DuplicateKeyException.class, e -> OptimisticRetry.conflict(MonthlyCashBalance.class, summary.getId()));
+		}
+
+		// Los resúmenes anteriores a la revisión no tienen el campo: { version: null } también los encuentra
+		Query query = Query.query(Criteria.where("_id").is(summary.getId()).and("version").is(current.get().getVersion()));
+		Update update = new Update()
+				.set("year", summary.getYear())
+				.set("month", summary.getMonth())
+				.set("totalIncome", new Decimal128(summary.getTotalIncome()))
+				.set("totalExpense", new Decimal128(summary.getTotalExpense()))
+				.set("closedRegisters", summary.getClosedRegisters())
+				.set("updatedAt", summary.getUpdatedAt())
+				.inc("version", 1L);
+
+		return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), MonthlyCashBalance.class)
+				.switchIfEmpty(Mono.error(() -> OptimisticRetry.conflict(MonthlyCashBalance.class, summary.getId())));
+	}
+
+	// Primero el movimiento y recién después los acumuladores: si la caja se cerró en el medio
+	// se borra el movimiento, así los totales nunca cuentan algo que no quedó registrado
+	private Mono<CashMovement> saveAndAccumulate(CashMovement movement) {
+		BigDecimal amount = BigDecimal.valueOf(movement.getAmount());
+
+		return cashMovementRepo.save(movement)
+				.flatMap(saved -> (saved.isIncome()
+								? registerIncome(saved.getCashRegisterId(), amount)
+								: registerExpense(saved.getCashRegisterId(), amount))
+						.onErrorResume(e -> cashMovementRepo.delete(saved).then(Mono.error(e)))
+						.thenReturn(saved));
+	}
+
+	private static Mono<BigDecimal> sumOf(Mono<Decimal128> total) {
+		// Sin documentos en el rango la agregación no devuelve nada; toBigDecimal también cubre el -0 de Decimal128
+		return total.map(RecipeScaler::toBigDecimal).defaultIfEmpty(BigDecimal.ZERO);
+	}
+
+	private Mono<Void> requireOpenCashRegister(Long modified) {
+		if (modified == 0) {
+			return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"La caja del movimiento se cerró antes de registrarlo. Intente nuevamente."));
+		}
+		return Mono.empty();
+	}
+
+	private CashRegister withDefaultTotals(CashRegister cashRegister) {
+		if (cashRegister.getTotalIncome() == null) {
+			cashRegister.setTotalIncome(BigDecimal.ZERO);
+		}
+		if (cashRegister.getTotalExpense() == null) {
+			cashRegister.setTotalExpense(BigDecimal.ZERO);
+		}
+		return cashRegister;
+	}
+
 }
\ No newline at end of file
@@ -8,12 +8,19 @@ import com.taup.alimentos_mascotas.Repositories.Admins.Finance.CashRegisterRepos
 import com.taup.alimentos_mascotas.Repositories.Admins.Finance.InvoiceRepository;
 import com.taup.alimentos_mascotas.Repositories.Admins.Finance.ProviderRepository;
 import com.taup.alimentos_mascotas.Services.Profiles.UserService;
+import com.taup.alimentos_mascotas.Services.Common.CountCacheService;
+import com.taup.alimentos_mascotas.Services.Common.PagingService;
+import com.taup.alimentos_mascotas.Utils.OptimisticRetry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
@@ -23,21 +30,20 @@ import java.time.LocalDateTime;
 public class InvoiceService {
 
 	private final InvoiceRepository invoiceRepo;
+	private final PagingService pagingService;
 	private final ProviderRepository providerRepo;
 	private final CashRegisterRepository cashRegisterRepo;
 	private final UserService userService;
+	private final CashRegisterService cashRegisterService;
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final CountCacheService countCache;
 
-	public Mono<PagedResponse<Invoice>> getInvoicesPaged(int page, int size) {
-		PageRequest pageRequest = PageRequest.of(page, size);
-		Mono<Long> totalElementsMono = invoiceRepo.count();
-		Flux<Invoice> invoicesFlux = invoiceRepo.findInvoicesPaged(pageRequest);
-
-		return Mono.zip(totalElementsMono, invoicesFlux.collectList())
-				.map(tuple -> new PagedResponse<>(
-						tuple.getT2(), // Lista de facturas
-						tuple.getT1(), // Total de registros
-						page,
-						size));
+	public Mono<PagedResponse<Invoice>> getInvoicesPaged(int page, int size, String after, boolean withTotal) {
+		if (PagingService.isCursorMode(after)) {
+			return pagingService.findPageAfter(Invoice.class, null, after, size);
+		}
+
+		return pagingService.findPage(Invoice.class, (Criteria) null, null, PageRequest.of(page, size), withTotal);
 	}
 
 	public Mono<InvoiceWithProviderDTO> getInvoiceWithDetails(String invoiceId) {
@@ -79,7 +85,8 @@ public class InvoiceService {
 					return invoiceRepo.findById(invoiceId)
 							.flatMap(existingInvoice -> {
 								return invoiceRepo.save(mappingInvoiceToUpdate(existingInvoice, invoice, name.getName() + " " + name.getSurname()));
-							});
+							})
+							.retryWhen(OptimisticRetry.onConflict());
 				});
 
 	}
@@ -99,21 +106,21 @@ public class InvoiceService {
 							.hasElement() // Verifica si hay elementos
 							.flatMap(hasOpenRegister -> {
 								if (hasOpenRegister) {
+									String registeredBy = name.getName() + " " + name.getSurname();
+									// Primero el egreso en caja y después la factura: si el pago no se puede aplicar
+									// (caja cerrada en el medio, deuda superada por otro pago) se anula el movimiento
 									return invoiceRepo.findById(invoiceId)
-											.flatMap(existingInvoice -> {
-												if (existingInvoice.getDueAmount() < (existingInvoice.getPaidAmount() + invoice.getPaidAmount())) {
-													return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
-															"El pago a realizar exederá la deuda total."));
-												}
-												existingInvoice.setPaidAmount(existingInvoice.getPaidAmount() + invoice.getPaidAmount());
-												existingInvoice.setLastPaymentDate(LocalDateTime.now());
-												existingInvoice.setUpdatedAt(LocalDateTime.now());
-												existingInvoice.setModifiedBy(name.getName() + " " + name.getSurname());
-
-												existingInvoice.setHasDebt(existingInvoice.getPaidAmount() < existingInvoice.getDueAmount());
-												existingInvoice.setIsPaid(existingInvoice.getPaidAmount() >= existingInvoice.getDueAmount());
-												return invoiceRepo.save(existingInvoice);
-											});
+											.switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND,
+													"No se encontró la factura con ID: " + invoiceId)))
+											.flatMap(existingInvoice -> validatePayment(existingInvoice, invoice.getPaidAmount()))
+											.then(cashRegisterService.registerInvoicePayment(invoiceId, invoice.getPaidAmount(), registeredBy))
+											.flatMap(movement -> invoiceRepo.findById(invoiceId)
+													.switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND,
+															"No se encontró la factura con ID: " + invoiceId)))
+													.flatMap(existingInvoice -> applyPayment(existingInvoice, invoice.getPaidAmount(), registeredBy))
+													.retryWhen(OptimisticRetry.onConflict())
+													.onErrorResume(e -> cashRegisterService.cancelMovement(movement)
+															.then(Mono.error(e))));
 								}
 								return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
 										"No existe una caja abierta, para guarar un pago necesita abrir la caja primero."));
@@ -123,6 +130,45 @@ public class InvoiceService {
 	}
 
 	/** Métodos locales */
+
+	/**
+	 * Suma el pago con $inc condicionado a la versión leída, así dos pagos simultáneos no se pisan
+	 * ni pueden superar entre ambos la deuda validada.
+	 */
+	private Mono<Invoice> applyPayment(Invoice existingInvoice, Double payment, String modifiedBy) {
+		double newPaidAmount = paidAmountOf(existingInvoice) + payment;
+
+		LocalDateTime now = LocalDateTime.now();
+		Query query = Query.query(Criteria.where("_id").is(existingInvoice.getId())
+				.and("version").is(existingInvoice.getVersion()));
+		Update update = new Update()
+				.inc("paidAmount", payment)
+				.set("lastPaymentDate", now)
+				.set("updatedAt", now)
+				.set("modifiedBy", modifiedBy)
+				.set("hasDebt", newPaidAmount < existingInvoice.getDueAmount())
+				.set("isPaid", newPaidAmount >= existingInvoice.getDueAmount())
+				.inc("version", 1);
+
+		return validatePayment(existingInvoice, payment)
+				.then(mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Invoice.class))
+				.switchIfEmpty(Mono.error(() -> OptimisticRetry.conflict(Invoice.class, existingInvoice.getId())))
+				// El pago cambia hasDebt/isPaid sin pasar por save, así que la caché de conteos se limpia a mano
+				.doOnNext(updated -> countCache.invalidate(Invoice.class));
+	}
+
+	private Mono<Void> validatePayment(Invoice existingInvoice, Double payment) {
+		if (existingInvoice.getDueAmount() < paidAmountOf(existingInvoice) + payment) {
+			return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"El pago a realizar exederá la deuda total."));
+		}
+		return Mono.empty();
+	}
+
+	private static double paidAmountOf(Invoice invoice) {
+		return invoice.getPaidAmount() != null ? invoice.getPaidAmount() : 0.0;
+	}
+
 	private Mono<InvoiceWithProviderDTO> mappingFromInvoiceToInvoiceWithProviderDTO(Invoice invoice, Provider provider) {
 		InvoiceWithProviderDTO dto = new InvoiceWithProviderDTO();
 
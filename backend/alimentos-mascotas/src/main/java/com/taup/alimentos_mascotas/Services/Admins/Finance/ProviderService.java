@@ -5,12 +5,14 @@ import com.taup.alimentos_mascotas.DTO.PagedResponse;
 import com.taup.alimentos_mascotas.Models.Admins.Finance.Provider;
 import com.taup.alimentos_mascotas.Repositories.Admins.Finance.ProviderRepository;
 import com.taup.alimentos_mascotas.Services.Profiles.UserService;
+import com.taup.alimentos_mascotas.Services.Common.PagingService;
+import com.taup.alimentos_mascotas.Utils.OptimisticRetry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
@@ -21,20 +23,16 @@ public class ProviderService {
 
 	private final UserService userService;
 	private final ProviderRepository providerRepo;
+	private final PagingService pagingService;
 
 	// ? ==================== MÉTODOS PÚBLICOS ====================
 
-	public Mono<PagedResponse<Provider>> getProvidersPaged(int page, int size) {
-		PageRequest pageRequest = PageRequest.of(page, size);
-		Mono<Long> totalElementsMono = providerRepo.count();
-		Flux<Provider> providersFlux = providerRepo.findProvidersPaged(pageRequest);
+	public Mono<PagedResponse<Provider>> getProvidersPaged(int page, int size, String after, boolean withTotal) {
+		if (PagingService.isCursorMode(after)) {
+			return pagingService.findPageAfter(Provider.class, null, after, size);
+		}
 
-		return Mono.zip(totalElementsMono, providersFlux.collectList())
-				.map(tuple -> new PagedResponse<>(
-						tuple.getT2(), // Lista de proveedores
-						tuple.getT1(), // Total de registros
-						page,
-						size));
+		return pagingService.findPage(Provider.class, (Criteria) null, null, PageRequest.of(page, size), withTotal);
 	}
 
 	public Mono<Provider> getProviderById(String providerId) {
@@ -65,7 +63,8 @@ public class ProviderService {
 				.flatMap(existingProvider -> {
 							Provider updatedProvider = mappingProviderToUpdate(existingProvider, provider, username);
 							return providerRepo.save(updatedProvider);
-						});
+						})
+				.retryWhen(OptimisticRetry.onConflict());
 	}
 
 	public Mono<Void> deleteProvider(String providerId) {
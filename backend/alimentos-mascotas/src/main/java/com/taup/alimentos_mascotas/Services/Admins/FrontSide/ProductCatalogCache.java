@@ -0,0 +1,53 @@
+package com.taup.alimentos_mascotas.Services.Admins.FrontSide;
+
+import com.taup.alimentos_mascotas.DTO.PagedResponse;
+import com.taup.alimentos_mascotas.DTO.ProductFrontDTO;
+import com.taup.alimentos_mascotas.Utils.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Cache del catálogo público (páginas y productos individuales ya mapeados a ProductFrontDTO).
+ * ProductService lo invalida en cada alta, modificación, baja o cambio de receta de un producto.
+ */
+@Component
+public class ProductCatalogCache {
+
+	private final TtlCache<String, PagedResponse<ProductFrontDTO>> pages;
+	private final TtlCache<String, ProductFrontDTO> products;
+
+	public ProductCatalogCache(@Value("${storefront.cache.ttl-seconds:300}") long ttlSeconds,
+	                           @Value("${storefront.cache.max-entries:500}") int maxEntries) {
+		this.pages = new TtlCache<>(Duration.ofSeconds(ttlSeconds), maxEntries);
+		this.products = new TtlCache<>(Duration.ofSeconds(ttlSeconds), maxEntries);
+	}
+
+	public Mono<PagedResponse<ProductFrontDTO>> page(String key, Supplier<Mono<PagedResponse<ProductFrontDTO>>> loader) {
+		return readThrough(pages, key, loader);
+	}
+
+	public Mono<ProductFrontDTO> product(String productId, Supplier<Mono<ProductFrontDTO>> loader) {
+		return readThrough(products, productId, loader);
+	}
+
+	public void invalidateAll() {
+		pages.invalidateAll();
+		products.invalidateAll();
+	}
+
+	// ? Metodos locales
+
+	private <V> Mono<V> readThrough(TtlCache<String, V> cache, String key, Supplier<Mono<V>> loader) {
+		return Mono.defer(() -> {
+			V cached = cache.get(key);
+			if (cached != null) {
+				return Mono.just(cached);
+			}
+			return loader.get().doOnNext(value -> cache.put(key, value));
+		});
+	}
+}
@@ -5,66 +5,46 @@ import com.taup.alimentos_mascotas.DTO.ProductFrontDTO;
 import com.taup.alimentos_mascotas.Exceptions.MonoEx;
 import com.taup.alimentos_mascotas.Models.Admins.Management.Product;
 import com.taup.alimentos_mascotas.Repositories.Admins.Management.ProductRepository;
+import com.taup.alimentos_mascotas.Services.Admins.Management.ProductService;
+import com.taup.alimentos_mascotas.Services.Common.PagingService;
+import com.taup.alimentos_mascotas.Utils.SearchText;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @Service
 @AllArgsConstructor
 public class ProductFrontService {
 
 	private final ProductRepository productRepo;
+	private final ProductCatalogCache catalogCache;
+	private final PagingService pagingService;
 
 	@Transactional(readOnly = true)
 	public Mono<PagedResponse<ProductFrontDTO>> listAllPaged(int page, int size, String keyword) {
-		PageRequest pageRequest = PageRequest.of(page, size);
-
-		if(keyword != null && !keyword.isEmpty()){
-			return getProductsByKeyword(pageRequest, keyword);
+		if (SearchText.hasNoTerms(keyword)) {
+			return Mono.just(new PagedResponse<>(List.of(), 0L, page, size));
 		}
+		List<String> terms = SearchText.tokens(keyword);
+		String cacheKey = page + "|" + size + "|" + String.join(" ", terms);
 
-		return getAllProductsPaged(pageRequest);
+		return catalogCache.page(cacheKey, () -> pagingService.findPage(Product.class, ProductService.searchStages(terms),
+						String.join(" ", terms), PageRequest.of(page, size), true)
+				.map(result -> result.map(product -> mapProductToProductDTO(product, new ProductFrontDTO()))));
 	}
 
 	@Transactional(readOnly = true)
 	public Mono<ProductFrontDTO> getProduct(String productId){
-		return productRepo.findById(productId)
-				.switchIfEmpty(MonoEx.monoError(HttpStatus.BAD_REQUEST, "No se encontró el producto"))
-				.map(product -> mapProductToProductDTO(product, new ProductFrontDTO()));
-	}
-
-
-	private Mono<PagedResponse<ProductFrontDTO>> getAllProductsPaged(PageRequest pageRequest) {
-		Mono<Long> totalElements = productRepo.count();
-		Flux<ProductFrontDTO> productsFlux = productRepo.findProductsPaged(pageRequest)
-				.map(product -> mapProductToProductDTO(product, new ProductFrontDTO()));
-
-		return Mono.zip(totalElements, productsFlux.collectList())
-				.map(tuple -> new PagedResponse<>(
-						tuple.getT2(),
-						tuple.getT1(),
-						pageRequest.getPageNumber(),
-						pageRequest.getPageSize()
-				));
+		return catalogCache.product(productId, () -> productRepo.findById(productId)
+						.map(product -> mapProductToProductDTO(product, new ProductFrontDTO())))
+				.switchIfEmpty(MonoEx.monoError(HttpStatus.BAD_REQUEST, "No se encontró el producto"));
 	}
 
-	private Mono<PagedResponse<ProductFrontDTO>> getProductsByKeyword(PageRequest pageRequest, String keyword) {
-		Mono<Long> totalElements = productRepo.countByKeyword(keyword);
-		Flux<ProductFrontDTO> productsFlux= productRepo.findByKeyword(keyword, pageRequest)
-				.map(product -> mapProductToProductDTO(product, new ProductFrontDTO()));
-
-		return Mono.zip(totalElements, productsFlux.collectList())
-				.map(tuple -> new PagedResponse<>(
-						tuple.getT2(),
-						tuple.getT1(),
-						pageRequest.getPageNumber(),
-						pageRequest.getPageSize()
-				));
-	}
 
 
 	private ProductFrontDTO mapProductToProductDTO(Product product, ProductFrontDTO productDTO){
@@ -73,8 +53,10 @@ public class ProductFrontService {
 		productDTO.setProductDescription(product.getProductDescription());
 		productDTO.setProductDetails(product.getProductDetails());
 		productDTO.setImageUrl(product.getImageUrl());
+		productDTO.setImageVariants(product.getImageVariants());
 		productDTO.setSellingPrice(product.getSellingPrice());
 		productDTO.setDiscountPercent(product.getDiscountPercent());
+		productDTO.setUpdatedAt(product.getUpdatedAt() != null ? product.getUpdatedAt() : product.getCreatedAt());
 
 		return  productDTO;
 	}
@@ -4,9 +4,12 @@ import com.taup.alimentos_mascotas.DTO.PagedResponse;
 import com.taup.alimentos_mascotas.Exceptions.MonoEx;
 import com.taup.alimentos_mascotas.Models.Admins.FrontSide.Review;
 import com.taup.alimentos_mascotas.Repositories.Admins.FrontSide.ReviewRepository;
-import com.taup.alimentos_mascotas.Repositories.Admins.Management.ProductRepository;
+import com.taup.alimentos_mascotas.Services.Admins.Management.CascadeDeleteService;
+import com.taup.alimentos_mascotas.Services.Common.PagingService;
+import com.taup.alimentos_mascotas.Utils.OptimisticRetry;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,17 +23,18 @@ import java.time.LocalDateTime;
 public class ReviewService {
 
 	private final ReviewRepository reviewRepo;
-	private final ProductRepository productRepo;
+	private final CascadeDeleteService cascadeDeleteService;
+	private final PagingService pagingService;
 
 	@Transactional(readOnly = true)
-	public Mono<PagedResponse<Review>> listAllPaged(int page, int size, String keyword) {
-		PageRequest pageRequest = PageRequest.of(page, size);
+	public Mono<PagedResponse<Review>> listAllPaged(int page, int size, String keyword, String after, boolean withTotal) {
+		Criteria filter = (keyword != null && !keyword.isEmpty()) ? Criteria.where("productId").regex(keyword, "i") : null;
 
-		if (keyword != null && !keyword.isEmpty()) {
-			return getReviewsByProductId(pageRequest, keyword);
+		if (PagingService.isCursorMode(after)) {
+			return pagingService.findPageAfter(Review.class, filter, after, size);
 		}
 
-		return getAllReviesPaged(pageRequest);
+		return pagingService.findPage(Review.class, filter, keyword, PageRequest.of(page, size), withTotal);
 	}
 
 	@Transactional(readOnly = true)
@@ -63,7 +67,8 @@ public class ReviewService {
 				.flatMap(existingReview -> {
 					Review updatedReview = mappingReviewToUpdate(existingReview, review, username);
 					return reviewRepo.save(updatedReview);
-				});
+				})
+				.retryWhen(OptimisticRetry.onConflict());
 	}
 
 	@Transactional
@@ -73,21 +78,13 @@ public class ReviewService {
 				.flatMap(review -> {
 					review.setIsAuth(true);
 					return reviewRepo.save(review);
-				});
+				})
+				.retryWhen(OptimisticRetry.onConflict());
 	}
 
 	@Transactional
 	public Mono<Void> delete(String reviewId){
-		return reviewRepo.findById(reviewId)
-				.switchIfEmpty(MonoEx.monoError(HttpStatus.NOT_FOUND, "No se encotro la reseña a a eliminar."))
-				.flatMap(reviewToDelete ->{
-					return productRepo.findById(reviewToDelete.getProductId())
-							.flatMap(product -> {
-								product.getReviewsIds().remove(reviewId);
-								return productRepo.save(product);
-							});
-				})
-				.then(reviewRepo.deleteById(reviewId));
+		return cascadeDeleteService.deleteReview(reviewId);
 	}
 
 	private Review mappingReviewToUpdate(Review existingReview, Review review, String username) {
@@ -99,30 +96,4 @@ public class ReviewService {
 
 		return  existingReview;
 	}
-
-	private Mono<PagedResponse<Review>> getAllReviesPaged(PageRequest pageRequest) {
-		Mono<Long> totalElements = reviewRepo.count();
-		Flux<Review> reviewFlux = reviewRepo.findReviewsPaged(pageRequest);
-
-		return Mono.zip(totalElements, reviewFlux.collectList())
-				.map(tuple -> new PagedResponse<>(
-						tuple.getT2(),
-						tuple.getT1(),
-						pageRequest.getPageNumber(),
-						pageRequest.getPageSize()
-				));
-	}
-
-	private Mono<PagedResponse<Review>> getReviewsByProductId(PageRequest pageRequest, String productId) {
-		Mono<Long> totalElements = reviewRepo.countByProductId(productId);
-		Flux<Review> reviewFlux = reviewRepo.findReviewsByProductId(pageRequest, productId);
-
-		return Mono.zip(totalElements, reviewFlux.collectList())
-				.map(tuple -> new PagedResponse<>(
-						tuple.getT2(),
-						tuple.getT1(),
-						pageRequest.getPageNumber(),
-						pageRequest.getPageSize()
-				));
-	}
 }
@@ -1,11 +1,15 @@
 package com.taup.alimentos_mascotas.Services.Admins.Management;
 
+import com.taup.alimentos_mascotas.DTO.BuyOrderRowDTO;
 import com.taup.alimentos_mascotas.DTO.PagedResponse;
 import com.taup.alimentos_mascotas.Exceptions.MonoEx;
 import com.taup.alimentos_mascotas.Models.Admins.Management.BuyOrder;
 import com.taup.alimentos_mascotas.Repositories.Admins.Management.BuyOrderRepository;
+import com.taup.alimentos_mascotas.Services.Common.PagingService;
+import com.taup.alimentos_mascotas.Utils.OptimisticRetry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,23 +25,36 @@ public class BuyOrderService {
 
 	private final BuyOrderRepository buyOrderRepo;
 	private final  WorkOrderService workOrderService;
+	private final PagingService pagingService;
 
 	@Transactional(readOnly = true)
-	public Mono<PagedResponse<BuyOrder>> listAllPaged(int page, int size, String keyword, LocalDate startDate, LocalDate endDate) {
+	public Mono<PagedResponse<BuyOrder>> listAllPaged(int page, int size, String keyword, LocalDate startDate, LocalDate endDate, String after, boolean withTotal) {
 		PageRequest pageRequest = PageRequest.of(page, size);
 
 		if (endDate.isBefore(startDate)) {
 			return MonoEx.monoError(HttpStatus.BAD_REQUEST, "La fecha de finalizacion debe ser despues de la fecha de inicio");
 		}
 
-		if (keyword != null && !keyword.isEmpty()) {
-			return getBuyOrdersByKeyword(pageRequest, keyword, startDate, endDate);
+		if (PagingService.isCursorMode(after)) {
+			return pagingService.findPageAfter(BuyOrder.class, keywordCriteria(keyword, startDate, endDate), after, size);
 		}
 
-		return getAllBuyOrdersPaged(pageRequest);
+		String filterKey = (keyword != null && !keyword.isEmpty()) ? keyword + "|" + startDate + "|" + endDate : null;
+		return pagingService.findPage(BuyOrder.class, keywordCriteria(keyword, startDate, endDate), filterKey, pageRequest, withTotal);
 	}
 
 
+	@Transactional(readOnly = true)
+	public Mono<PagedResponse<BuyOrderRowDTO>> listRows(int page, int size, String keyword, LocalDate startDate, LocalDate endDate,
+	                                                    String fields, boolean withTotal) {
+		if (endDate.isBefore(startDate)) {
+			return MonoEx.monoError(HttpStatus.BAD_REQUEST, "La fecha de finalizacion debe ser despues de la fecha de inicio");
+		}
+
+		return pagingService.findRows(BuyOrder.class, BuyOrderRowDTO.class, keywordCriteria(keyword, startDate, endDate),
+				keyword + "|" + startDate + "|" + endDate, fields, PageRequest.of(page, size), withTotal);
+	}
+
 	@Transactional(readOnly = true)
 	public Flux<BuyOrder> findAll() {
 		return buyOrderRepo.findAll();
@@ -73,7 +90,8 @@ public class BuyOrderService {
 					BuyOrder updatedBuyOrder = mappingBuyOrderToUpdate(existingBuyOrder, buyOrder, username);
 					
 					return buyOrderRepo.save(updatedBuyOrder);
-				});
+				})
+				.retryWhen(OptimisticRetry.onConflict());
 	}
 
 	@Transactional
@@ -120,30 +138,13 @@ public class BuyOrderService {
 	}
 
 
-	private Mono<PagedResponse<BuyOrder>> getAllBuyOrdersPaged(PageRequest pageRequest) {
-		Mono<Long> totalElements = buyOrderRepo.count();
-		Flux<BuyOrder> buyOrderFlux = buyOrderRepo.findBuyOrdersPaged(pageRequest);
-
-		return Mono.zip(totalElements, buyOrderFlux.collectList())
-				.map(tuple -> new PagedResponse<>(
-						tuple.getT2(),
-						tuple.getT1(),
-						pageRequest.getPageNumber(),
-						pageRequest.getPageSize()
-				));
-	}
-
-	private Mono<PagedResponse<BuyOrder>> getBuyOrdersByKeyword(PageRequest pageRequest, String keyword, LocalDate startDate, LocalDate endDate) {
-		Mono<Long> totalElements = buyOrderRepo.countByKeywordAndDate(keyword, startDate, endDate);
-		Flux<BuyOrder> buyOrderFlux = buyOrderRepo.findByKeywordAndDate(keyword, startDate, endDate, pageRequest);
-
-		return Mono.zip(totalElements, buyOrderFlux.collectList())
-				.map(tuple -> new PagedResponse<>(
-						tuple.getT2(),
-						tuple.getT1(),
-						pageRequest.getPageNumber(),
-						pageRequest.getPageSize()
-				));
+	private Criteria keywordCriteria(String keyword, LocalDate startDate, LocalDate endDate) {
+		if (keyword == null || keyword.isEmpty()) {
+			return null;
+		}
+		return new Criteria().orOperator(
+				Criteria.where("status").regex(keyword, "i"),
+				Criteria.where("orderDate").gte(startDate).lt(endDate));
 	}
 
 }
@@ -0,0 +1,135 @@
+package com.taup.alimentos_mascotas.Services.Admins.Management;
+
+import com.taup.alimentos_mascotas.DTO.CascadeImpactDTO;
+import com.taup.alimentos_mascotas.Exceptions.MonoEx;
+import com.taup.alimentos_mascotas.Models.Admins.FrontSide.Review;
+import com.taup.alimentos_mascotas.Models.Admins.Management.Ingredient;
+import com.taup.alimentos_mascotas.Models.Admins.Management.Product;
+import com.taup.alimentos_mascotas.Models.Admins.Management.Recipe;
+import com.taup.alimentos_mascotas.Services.Common.CountCacheService;
+import org.bson.Document;
+import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Eliminaciones en cascada con un updateMany por colección referente más el delete del documento.
+ * Cuando MongoDB corre como replica set (o detrás de un mongos) ambos pasos van en una transacción;
+ * en un servidor standalone se ejecutan en secuencia, limpiando primero las referencias.
+ */
+@Service
+public class CascadeDeleteService {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final CountCacheService countCache;
+	private final TransactionalOperator transactionalOperator;
+	private final Mono<Boolean> transactionsSupported;
+
+	public CascadeDeleteService(ReactiveMongoTemplate mongoTemplate, CountCacheService countCache) {
+		this.mongoTemplate = mongoTemplate;
+		this.countCache = countCache;
+		// Administrador local: registrarlo como bean activaría @Transactional en todos los servicios,
+		// lo que falla contra un servidor standalone
+		this.transactionalOperator = TransactionalOperator.create(
+				new ReactiveMongoTransactionManager(mongoTemplate.getMongoDatabaseFactory()));
+		this.transactionsSupported = mongoTemplate.executeCommand(new Document("hello", 1))
+				.map(reply -> reply.containsKey("setName") || "isdbgrid".equals(reply.getString("msg")))
+				.cache(supported -> Duration.ofHours(1), error -> Duration.ZERO, () -> Duration.ZERO);
+	}
+
+	public Mono<Void> deleteIngredient(String ingredientId) {
+		String path = "ingredientsWithQuantity." + ingredientId;
+		return inCascade(mongoTemplate.updateMulti(Query.query(Criteria.where(path).exists(true)),
+						touch(new Update().unset(path)), Recipe.class)
+				.then(mongoTemplate.remove(byId(ingredientId), Ingredient.class))
+				.then(), Recipe.class, Ingredient.class);
+	}
+
+	public Mono<Void> deleteRecipe(String recipeId) {
+		return inCascade(mongoTemplate.updateMulti(Query.query(Criteria.where("recipeId").is(recipeId)),
+						touch(new Update().unset("recipeId")), Product.class)
+				.then(mongoTemplate.remove(byId(recipeId), Recipe.class))
+				.then(), Product.class, Recipe.class);
+	}
+
+	public Mono<Void> deleteProduct(String productId) {
+		return inCascade(mongoTemplate.updateMulti(Query.query(Criteria.where("createdProducts").is(productId)),
+						touch(new Update().pull("createdProducts", productId)), Recipe.class)
+				.then(mongoTemplate.remove(byId(productId), Product.class))
+				.then(), Recipe.class, Product.class);
+	}
+
+	public Mono<Void> deleteReview(String reviewId) {
+		// Mismo orden que las demás cascadas: primero las referencias y después el documento
+		return inCascade(mongoTemplate.exists(byId(reviewId), Review.class)
+				.flatMap(exists -> exists
+						? mongoTemplate.updateMulti(Query.query(Criteria.where("reviewsIds").is(reviewId)),
+								touch(new Update().pull("reviewsIds", reviewId)), Product.class)
+						: MonoEx.monoError(HttpStatus.NOT_FOUND, "No se encotro la reseña a a eliminar."))
+				.then(mongoTemplate.remove(byId(reviewId), Review.class))
+				.then(), Product.class, Review.class);
+	}
+
+	/**
+	 * Simulacro: cuenta los documentos que tocaría la eliminación sin modificar nada.
+	 */
+	public Mono<CascadeImpactDTO> impactOf(String entity, String id) {
+		return switch (entity) {
+			case "ingrediente" -> impact(entity, id, Ingredient.class,
+					Query.query(Criteria.where("ingredientsWithQuantity." + id).exists(true)), Recipe.class);
+			case "receta" -> impact(entity, id, Recipe.class,
+					Query.query(Criteria.where("recipeId").is(id)), Product.class);
+			case "producto" -> impact(entity, id, Product.class,
+					Query.query(Criteria.where("createdProducts").is(id)), Recipe.class);
+			case "resena" -> impact(entity, id, Review.class,
+					Query.query(Criteria.where("reviewsIds").is(id)), Product.class);
+			default -> MonoEx.monoError(HttpStatus.BAD_REQUEST,
+					"Entidad desconocida '" + entity + "'. Opciones: ingrediente, receta, producto, resena");
+		};
+	}
+
+	// ? Metodos locales
+
+	private Mono<CascadeImpactDTO> impact(String entity, String id, Class<?> type, Query referencing, Class<?> referencingType) {
+		return Mono.zip(
+						mongoTemplate.exists(byId(id), type),
+						mongoTemplate.count(referencing, referencingType),
+						transactionsSupported.onErrorReturn(false))
+				.map(tuple -> new CascadeImpactDTO(entity, id, tuple.getT1(),
+						Map.of(mongoTemplate.getCollectionName(referencingType), tuple.getT2()), tuple.getT3()));
+	}
+
+	/**
+	 * Ejecuta la cascada y, al terminar (bien o mal, porque en standalone puede quedar a medias),
+	 * invalida los conteos de las colecciones tocadas: updateMulti no publica eventos de guardado.
+	 */
+	private Mono<Void> inCascade(Mono<Void> operations, Class<?>... touched) {
+		return transactionsSupported
+				.onErrorReturn(false)
+				.flatMap(supported -> supported ? transactionalOperator.transactional(operations) : operations)
+				.doFinally(signal -> {
+					for (Class<?> type : touched) {
+						countCache.invalidate(type);
+					}
+				});
+	}
+
+	// Quitar una referencia también es una modificación del documento (y cambia su ETag)
+	private static Update touch(Update update) {
+		return update.set("updatedAt", LocalDateTime.now()).inc("version", 1);
+	}
+
+	private static Query byId(String id) {
+		return Query.query(Criteria.where("_id").is(id));
+	}
+}
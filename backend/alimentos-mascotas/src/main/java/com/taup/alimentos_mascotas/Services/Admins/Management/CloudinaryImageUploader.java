@@ -0,0 +1,48 @@
+package com.taup.alimentos_mascotas.Services.Admins.Management;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "images.uploader", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryImageUploader implements ImageUploader {
+
+    private final Cloudinary cloudinary;
+    private final int timeoutSeconds;
+
+    public CloudinaryImageUploader(
+            @Value("${cloudinary.cloud_name}") String cloudName,
+            @Value("${cloudinary.api_key}") String apiKey,
+            @Value("${cloudinary.api_secret}") String apiSecret,
+            @Value("${images.upload.timeout-seconds:30}") int timeoutSeconds
+    ) {
+        this.cloudinary = new Cloudinary(ObjectUtils.asMap(
+                "cloud_name", cloudName,
+                "api_key", apiKey,
+                "api_secret", apiSecret
+        ));
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    @Override
+    public String upload(byte[] image, String publicId) throws IOException {
+        Map<String, Object> options = new HashMap<>();
+        options.put("folder", "barker");
+        options.put("resource_type", "image");
+        options.put("public_id", publicId);
+        options.put("overwrite", true);
+        // Corta la conexión HTTP del cliente de Cloudinary además del timeout del pipeline
+        options.put("timeout", timeoutSeconds);
+
+        Map<?, ?> result = cloudinary.uploader().upload(image, options);
+        return result.get("secure_url").toString();
+    }
+}
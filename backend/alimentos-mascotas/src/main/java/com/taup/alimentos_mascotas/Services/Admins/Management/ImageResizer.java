@@ -0,0 +1,266 @@
+package com.taup.alimentos_mascotas.Services.Admins.Management;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Genera las versiones reducidas de una imagen con javax.imageio. Las variantes salen en JPEG;
+ * con images.variants.webp=true se usa WebP solo si hay un ImageWriter de WebP registrado (el JDK no trae uno).
+ * Se respeta la orientación EXIF de las fotos de celular (ImageIO la ignora) y cada variante sale de la anterior:
+ * original -> detalle -> tarjeta -> miniatura, así solo la primera reducción recorre la imagen completa.
+ * Es trabajo de CPU y bloqueante: ImageUploadService lo ejecuta en su scheduler, nunca en el event loop.
+ */
+@Component
+public class ImageResizer {
+
+    public enum Variant {
+        THUMBNAIL("thumbnail", 200),
+        CARD("card", 480),
+        DETAIL("detail", 1200);
+
+        private final String suffix;
+        private final int maxSide;
+
+        Variant(String suffix, int maxSide) {
+            this.suffix = suffix;
+            this.maxSide = maxSide;
+        }
+
+        public String suffix() {
+            return suffix;
+        }
+    }
+
+    private final String format;
+    private final float quality;
+    private final long maxPixels;
+
+    public ImageResizer(
+            @Value("${images.variants.webp:false}") boolean webp,
+            @Value("${images.variants.quality:0.82}") float quality,
+            @Value("${images.variants.max-pixels:40000000}") long maxPixels
+    ) {
+        this.format = webp && ImageIO.getImageWritersByFormatName("webp").hasNext() ? "webp" : "jpeg";
+        this.quality = quality;
+        this.maxPixels = maxPixels;
+    }
+
+    /**
+     * Devuelve los bytes de cada variante. Si el formato no se puede decodificar devuelve un mapa vacío
+     * y la imagen queda solo con el original.
+     */
+    public Map<Variant, byte[]> resize(byte[] original) throws IOException {
+        BufferedImage source = decode(original);
+        Map<Variant, byte[]> variants = new EnumMap<>(Variant.class);
+        if (source == null) {
+            return variants;
+        }
+
+        // La orientación se aplica después de la primera reducción: rotar 1200 px es mucho más barato que el original
+        BufferedImage detail = orient(scale(source, Variant.DETAIL.maxSide), exifOrientation(original));
+        BufferedImage card = scale(detail, Variant.CARD.maxSide);
+        BufferedImage thumbnail = scale(card, Variant.THUMBNAIL.maxSide);
+
+        variants.put(Variant.DETAIL, encode(detail));
+        variants.put(Variant.CARD, encode(card));
+        variants.put(Variant.THUMBNAIL, encode(thumbnail));
+        return variants;
+    }
+
+    // ? Metodos locales
+
+    private BufferedImage decode(byte[] original) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(original))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Se mira el tamaño antes de decodificar: un archivo chico puede declarar millones de píxeles
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage scale(BufferedImage source, int maxSide) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) maxSide / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        // Reducción por mitades hasta acercarse al tamaño final: evita el serrucho del bilineal en saltos grandes
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        return draw(current, targetWidth, targetHeight);
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height) {
+        // RGB sin alfa: el JPEG no tiene transparencia, se usa fondo blanco
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * Gira o espeja la imagen según el tag Orientation de EXIF (1 = sin cambios, 6 = 90° horario, 8 = 90° antihorario,
+     * 3 = 180°; 2, 4, 5 y 7 son las variantes espejadas). La imagen llega como TYPE_INT_RGB desde draw.
+     */
+    private BufferedImage orient(BufferedImage image, int orientation) {
+        if (orientation < 2 || orientation > 8) {
+            return image;
+        }
+
+        int width = image.getWidth();
+        int height = image.getHeight();
+        boolean swapsSides = orientation >= 5;
+        int targetWidth = swapsSides ? height : width;
+        int targetHeight = swapsSides ? width : height;
+
+        int[] source = image.getRGB(0, 0, width, height, null, 0, width);
+        int[] target = new int[source.length];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int targetX;
+                int targetY;
+                switch (orientation) {
+                    case 2 -> { targetX = width - 1 - x; targetY = y; }
+                    case 3 -> { targetX = width - 1 - x; targetY = height - 1 - y; }
+                    case 4 -> { targetX = x; targetY = height - 1 - y; }
+                    case 5 -> { targetX = y; targetY = x; }
+                    case 6 -> { targetX = height - 1 - y; targetY = x; }
+                    case 7 -> { targetX = height - 1 - y; targetY = width - 1 - x; }
+                    default -> { targetX = y; targetY = width - 1 - x; }
+                }
+                target[targetY * targetWidth + targetX] = source[y * width + x];
+            }
+        }
+
+        BufferedImage oriented = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        oriented.setRGB(0, 0, targetWidth, targetHeight, target, 0, targetWidth);
+        return oriented;
+    }
+
+    /**
+     * Lee el tag Orientation (0x0112) del segmento APP1 "Exif" de un JPEG. Sin EXIF, en otros formatos
+     * o ante datos mal formados devuelve 1 (sin cambios).
+     */
+    static int exifOrientation(byte[] image) {
+        try {
+            if (image.length < 4 || (image[0] & 0xFF) != 0xFF || (image[1] & 0xFF) != 0xD8) {
+                return 1;
+            }
+
+            int offset = 2;
+            while (offset + 4 <= image.length && (image[offset] & 0xFF) == 0xFF) {
+                int marker = image[offset + 1] & 0xFF;
+                int length = ((image[offset + 2] & 0xFF) << 8) | (image[offset + 3] & 0xFF);
+                // SOS: empiezan los datos comprimidos, ya no hay más metadatos
+                if (marker == 0xDA || length < 2) {
+                    return 1;
+                }
+                int segment = offset + 4;
+                if (marker == 0xE1 && length >= 8 && segment + 6 <= image.length
+                        && image[segment] == 'E' && image[segment + 1] == 'x' && image[segment + 2] == 'i'
+                        && image[segment + 3] == 'f' && image[segment + 4] == 0 && image[segment + 5] == 0) {
+                    return tiffOrientation(image, segment + 6, Math.min(image.length, offset + 2 + length));
+                }
+                offset += 2 + length;
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // EXIF truncado: se ignora
+        }
+        return 1;
+    }
+
+    private static int tiffOrientation(byte[] data, int tiff, int end) {
+        boolean littleEndian = data[tiff] == 'I' && data[tiff + 1] == 'I';
+        int ifd = tiff + readInt(data, tiff + 4, littleEndian);
+        if (ifd + 2 > end) {
+            return 1;
+        }
+
+        int entries = readShort(data, ifd, littleEndian);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > end) {
+                return 1;
+            }
+            if (readShort(data, entry, littleEndian) == 0x0112) {
+                int orientation = readShort(data, entry + 8, littleEndian);
+                return orientation >= 1 && orientation <= 8 ? orientation : 1;
+            }
+        }
+        return 1;
+    }
+
+    private static int readShort(byte[] data, int offset, boolean littleEndian) {
+        int first = data[offset] & 0xFF;
+        int second = data[offset + 1] & 0xFF;
+        return littleEndian ? (second << 8) | first : (first << 8) | second;
+    }
+
+    private static int readInt(byte[] data, int offset, boolean littleEndian) {
+        int high = readShort(data, littleEndian ? offset + 2 : offset, littleEndian);
+        int low = readShort(data, littleEndian ? offset : offset + 2, littleEndian);
+        return (high << 16) | low;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(stream);
+
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionTypes() != null && param.getCompressionType() == null) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+}
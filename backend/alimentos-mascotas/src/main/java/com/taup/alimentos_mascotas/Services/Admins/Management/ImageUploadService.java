@@ -1,58 +1,147 @@
 package com.taup.alimentos_mascotas.Services.Admins.Management;
 
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
+import com.taup.alimentos_mascotas.Models.Admins.Management.ImageVariants;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
-import java.util.HashMap;
+import java.time.Duration;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Subida de imágenes de productos. El archivo se junta con un tope de tamaño y se copia una sola vez a byte[];
+ * la llamada bloqueante al uploader corre en un scheduler acotado propio (hilos = subidas simultáneas, más una cola limitada),
+ * con timeout por intento (solo el tiempo de ejecución, no la espera en cola) y reintentos con backoff para los errores
+ * transitorios. Si el scheduler está saturado se responde 503.
+ */
 @Service
 public class ImageUploadService {
 
-    private final Cloudinary cloudinary;
+    private final ImageUploader uploader;
+    private final ImageResizer resizer;
+    private final Scheduler scheduler;
+    private final int maxBytes;
+    private final Duration timeout;
+    private final int maxRetries;
 
     public ImageUploadService(
-            @Value("${cloudinary.cloud_name}") String cloudName,
-            @Value("${cloudinary.api_key}") String apiKey,
-            @Value("${cloudinary.api_secret}") String apiSecret
+            ImageUploader uploader,
+            ImageResizer resizer,
+            @Value("${images.upload.max-bytes:5242880}") int maxBytes,
+            @Value("${images.upload.timeout-seconds:30}") int timeoutSeconds,
+            @Value("${images.upload.max-retries:2}") int maxRetries,
+            @Value("${images.upload.concurrency:4}") int concurrency,
+            @Value("${images.upload.queue-capacity:32}") int queueCapacity
     ) {
-        this.cloudinary = new Cloudinary(ObjectUtils.asMap(
-                "cloud_name", cloudName,
-                "api_key", apiKey,
-                "api_secret", apiSecret
-        ));
+        this.uploader = uploader;
+        this.resizer = resizer;
+        this.maxBytes = maxBytes;
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+        this.maxRetries = maxRetries;
+        this.scheduler = Schedulers.newBoundedElastic(concurrency, queueCapacity, "image-upload");
+    }
+
+    public record UploadedImage(String url, ImageVariants variants) {}
+
+    /**
+     * Sube el original y sus variantes reducidas (miniatura, tarjeta y detalle).
+     * Solo el original es obligatorio: si las variantes no se pueden generar o subir, variants queda en null
+     * y el producto se guarda igual.
+     */
+    public Mono<UploadedImage> uploadImage(FilePart filePart, String name) {
+        // Mismo public_id en todos los intentos: un reintento sobrescribe en lugar de duplicar la imagen
+        String publicId = System.currentTimeMillis() + "-" + name.replaceAll("\\s+", "-");
+
+        return readBytes(filePart)
+            .flatMap(bytes -> Mono.zip(
+                    upload(bytes, publicId),
+                    uploadVariants(bytes, publicId)
+                            .map(Optional::of)
+                            .defaultIfEmpty(Optional.empty())))
+            .map(uploaded -> new UploadedImage(uploaded.getT1(), uploaded.getT2().orElse(null)))
+            .onErrorMap(e -> !(e instanceof ResponseStatusException), e -> {
+                if (e instanceof RejectedExecutionException) {
+                    return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                            "Hay demasiadas subidas de imágenes en curso. Intente nuevamente en unos segundos.");
+                }
+                System.err.println("Error subiendo imagen: " + e.getMessage());
+                return new ResponseStatusException(HttpStatus.BAD_GATEWAY, "No se pudo subir la imagen.", e);
+            });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
     }
 
-    public Mono<String> uploadImage(FilePart filePart, String name) {
-        return DataBufferUtils.join(filePart.content())
-            .flatMap(dataBuffer -> {
-                try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-                    InputStream inputStream = dataBuffer.asInputStream(true);
-                    inputStream.transferTo(outputStream);
-                    byte[] bytes = outputStream.toByteArray();
-
-                    Map<String, Object> options = new HashMap<>();
-                    options.put("folder", "barker");
-                    options.put("resource_type", "image");
-                    options.put("public_id", System.currentTimeMillis() + "-" + name.replaceAll("\\s+", "-"));
-
-                    return Mono.fromCallable(() -> cloudinary.uploader().upload(bytes, options))
-                            .map(result -> result.get("secure_url").toString())
-                            .doOnError(e -> System.err.println("Error subiendo imagen a Cloudinary: " + e.getMessage()));
-                } catch (Exception e) {
-                    return Mono.error(new RuntimeException("Error al procesar la imagen", e));
+    // ? Metodos locales
+
+    private Mono<byte[]> readBytes(FilePart filePart) {
+        // join corta apenas se supera el tope, sin terminar de leer el archivo
+        return DataBufferUtils.join(filePart.content(), maxBytes)
+            .map(dataBuffer -> {
+                try {
+                    byte[] bytes = new byte[dataBuffer.readableByteCount()];
+                    dataBuffer.read(bytes);
+                    return bytes;
                 } finally {
                     DataBufferUtils.release(dataBuffer);
                 }
-            });
+            })
+            .onErrorMap(DataBufferLimitException.class, e -> new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "La imagen supera el tamaño máximo de " + (maxBytes / 1024) + " KB."))
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "La imagen está vacía.")));
+    }
+
+    private Mono<String> upload(byte[] bytes, String publicId) {
+        // El timeout va antes de subscribeOn: el reloj arranca cuando el hilo toma la tarea, no mientras espera en la cola
+        return Mono.fromCallable(() -> uploader.upload(bytes, publicId))
+                .timeout(timeout)
+                .subscribeOn(scheduler)
+                .retryWhen(Retry.backoff(maxRetries, Duration.ofMillis(500))
+                        .filter(ImageUploadService::isTransient)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    private Mono<ImageVariants> uploadVariants(byte[] original, String publicId) {
+        // El redimensionado también bloquea (CPU), así que corre en el mismo scheduler acotado
+        return Mono.fromCallable(() -> resizer.resize(original))
+                .subscribeOn(scheduler)
+                .filter(variants -> !variants.isEmpty())
+                .flatMap(variants -> Flux.fromIterable(variants.entrySet())
+                        .flatMap(variant -> upload(variant.getValue(), publicId + "-" + variant.getKey().suffix())
+                                .map(url -> Map.entry(variant.getKey(), url)))
+                        .collectMap(Map.Entry::getKey, Map.Entry::getValue))
+                .map(urls -> new ImageVariants(
+                        urls.get(ImageResizer.Variant.THUMBNAIL),
+                        urls.get(ImageResizer.Variant.CARD),
+                        urls.get(ImageResizer.Variant.DETAIL)))
+                .onErrorResume(e -> {
+                    System.err.println("No se pudieron generar o subir las variantes de la imagen: " + e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private static boolean isTransient(Throwable error) {
+        // La saturación del scheduler y los errores de validación no se reintentan; un timeout tampoco,
+        // porque la subida anterior puede seguir ocupando un hilo y el reintento solo sumaría carga
+        return !(error instanceof RejectedExecutionException) && !(error instanceof ResponseStatusException)
+                && !(error instanceof TimeoutException);
     }
 
     // public Mono<String> uploadImage(FilePart filePart, String name) {
@@ -0,0 +1,15 @@
+package com.taup.alimentos_mascotas.Services.Admins.Management;
+
+import java.io.IOException;
+
+/**
+ * Destino de las imágenes subidas. La llamada es bloqueante: ImageUploadService la ejecuta en su propio scheduler,
+ * nunca en el event loop. Con el mismo publicId la subida debe sobrescribir, para que los reintentos sean seguros.
+ */
+public interface ImageUploader {
+
+    /**
+     * Sube la imagen y devuelve la URL pública.
+     */
+    String upload(byte[] image, String publicId) throws IOException;
+}
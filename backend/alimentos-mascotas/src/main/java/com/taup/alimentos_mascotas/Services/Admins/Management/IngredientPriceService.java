@@ -0,0 +1,75 @@
+package com.taup.alimentos_mascotas.Services.Admins.Management;
+
+import com.taup.alimentos_mascotas.Models.Admins.Management.Ingredient;
+import com.taup.alimentos_mascotas.Repositories.Admins.Management.IngredientRepository;
+import com.taup.alimentos_mascotas.Utils.RecipeScaler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Consulta de precios de ingredientes para los cálculos de costo.
+ * Cada cálculo (o lote de cálculos) trae todos los ingredientes con un único findAllById.
+ */
+@Service
+@RequiredArgsConstructor
+public class IngredientPriceService {
+
+	private final IngredientRepository ingredientRepo;
+
+	/**
+	 * Precio unitario por ID de ingrediente. Los ingredientes que no existen no aparecen en el mapa.
+	 */
+	public Mono<Map<String, BigDecimal>> pricesOf(Collection<String> ingredientIds) {
+		if (ingredientIds.isEmpty()) {
+			return Mono.just(Map.of());
+		}
+
+		return ingredientRepo.findAllById(Set.copyOf(ingredientIds))
+				.collectMap(Ingredient::getId, ingredient -> ingredient.getPrice() != null ? ingredient.getPrice() : BigDecimal.ZERO);
+	}
+
+	/**
+	 * Costo total de las cantidades recibidas (ID de ingrediente -> cantidad).
+	 */
+	public Mono<BigDecimal> costOf(Map<String, Number> quantities) {
+		return pricesOf(quantities.keySet())
+				.map(prices -> costOf(quantities, prices));
+	}
+
+	/**
+	 * Varios cálculos de costo resueltos con una sola consulta; el resultado respeta el orden recibido.
+	 */
+	public Mono<List<BigDecimal>> costsOf(List<Map<String, Number>> quantitiesList) {
+		Set<String> ingredientIds = new HashSet<>();
+		quantitiesList.forEach(quantities -> ingredientIds.addAll(quantities.keySet()));
+
+		return pricesOf(ingredientIds)
+				.map(prices -> quantitiesList.stream()
+						.map(quantities -> costOf(quantities, prices))
+						.toList());
+	}
+
+	// ? Metodos locales
+
+	private static BigDecimal costOf(Map<String, Number> quantities, Map<String, BigDecimal> prices) {
+		BigDecimal total = BigDecimal.ZERO;
+
+		for (Map.Entry<String, Number> entry : quantities.entrySet()) {
+			BigDecimal price = prices.get(entry.getKey());
+			BigDecimal quantity = RecipeScaler.toBigDecimal(entry.getValue());
+			if (price != null && quantity != null) {
+				total = total.add(price.multiply(quantity));
+			}
+		}
+		return total;
+	}
+}
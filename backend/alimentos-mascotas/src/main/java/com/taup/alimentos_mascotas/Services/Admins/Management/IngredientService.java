@@ -1,40 +1,50 @@
 package com.taup.alimentos_mascotas.Services.Admins.Management;
 
+import com.taup.alimentos_mascotas.DTO.IngredientRowDTO;
+import com.taup.alimentos_mascotas.DTO.LinkPairDTO;
 import com.taup.alimentos_mascotas.DTO.PagedResponse;
 import com.taup.alimentos_mascotas.Exceptions.MonoEx;
 import com.taup.alimentos_mascotas.Models.Admins.Management.Ingredient;
-import com.taup.alimentos_mascotas.Repositories.Admins.Finance.ProviderRepository;
 import com.taup.alimentos_mascotas.Repositories.Admins.Management.IngredientRepository;
-import com.taup.alimentos_mascotas.Repositories.Admins.Management.RecipeRepository;
+import com.taup.alimentos_mascotas.Services.Common.PagingService;
+import com.taup.alimentos_mascotas.Utils.OptimisticRetry;
+import com.taup.alimentos_mascotas.Utils.StockItemType;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 
 @Service
 @AllArgsConstructor
 public class IngredientService {
 
 	private final IngredientRepository ingredientRepo;
-	private final ProviderRepository providerRepo;
-	private final RecipeRepository recipeRepo;
+	private final PagingService pagingService;
+	private final LinkMaintenanceService linkService;
+	private final CascadeDeleteService cascadeDeleteService;
+	private final StockLedgerService stockLedgerService;
 
 	@Transactional(readOnly = true)
-	public Mono<PagedResponse<Ingredient>> listAllPaged(int page, int size, String keyword) {
-		PageRequest pageRequest = PageRequest.of(page, size);
-
-		if (keyword != null && !keyword.isEmpty()) {
-			return getIngredientsByKeyword(pageRequest, keyword);
+	public Mono<PagedResponse<Ingredient>> listAllPaged(int page, int size, String keyword, String after, boolean withTotal) {
+		if (PagingService.isCursorMode(after)) {
+			return pagingService.findPageAfter(Ingredient.class, keywordCriteria(keyword), after, size);
 		}
 
-		return getAllIngredientsPaged(pageRequest);
+		return pagingService.findPage(Ingredient.class, keywordCriteria(keyword), keyword, PageRequest.of(page, size), withTotal);
+	}
+
+	@Transactional(readOnly = true)
+	public Mono<PagedResponse<IngredientRowDTO>> listRows(int page, int size, String keyword, String fields, boolean withTotal) {
+		return pagingService.findRows(Ingredient.class, IngredientRowDTO.class, keywordCriteria(keyword), keyword,
+				fields, PageRequest.of(page, size), withTotal);
 	}
 
 	@Transactional(readOnly = true)
@@ -48,10 +58,17 @@ public class IngredientService {
 			return MonoEx.monoError(HttpStatus.BAD_REQUEST, "El ingrediente ya tiene ID, no puede almacenarse como nuevo");
 		}
 
+		// El stock inicial entra como ajuste del libro, así el saldo queda explicado por movimientos
+		BigDecimal openingStock = ingredient.getStock();
+		ingredient.setStock(BigDecimal.ZERO);
 		ingredient.setCreatedAt(LocalDateTime.now());
 		ingredient.setCreatedBy(username);
 
-		return ingredientRepo.save(ingredient);
+		return ingredientRepo.save(ingredient)
+				.flatMap(saved -> openingStock == null || openingStock.signum() == 0
+						? Mono.just(saved)
+						: stockLedgerService.adjust(StockItemType.INGREDIENT, saved.getId(), openingStock, saved.getId())
+								.then(ingredientRepo.findById(saved.getId())));
 	}
 
 	@Transactional
@@ -66,57 +83,36 @@ public class IngredientService {
 				.flatMap(existingIngredient -> {
 					Ingredient updatedIngredient = mappingIngredientToUpdate(existingIngredient, ingredient, username);
 					return ingredientRepo.save(updatedIngredient);
-				});
+				})
+				.retryWhen(OptimisticRetry.onConflict());
+	}
+
+	@Transactional
+	public Mono<Ingredient> addProviderToIngredient(String ingredientId, String providerId, String username) {
+		return linkService.linkIngredientProviders(List.of(new LinkPairDTO(ingredientId, providerId)), username)
+				.then(ingredientRepo.findById(ingredientId));
 	}
 
 	@Transactional
-	public Mono<Ingredient> addProviderToIngredient(String ingredientId, String providerId) {
-		return providerRepo.findById(providerId)
-				.switchIfEmpty(MonoEx.monoError(HttpStatus.NOT_FOUND, "No se encontró el proveedor con ID: " + providerId))
-				.flatMap(foundProvider -> ingredientRepo.findById(ingredientId)
-						.switchIfEmpty(MonoEx.monoError(HttpStatus.NOT_FOUND, "No se encontro ingrediente con el ID: " + ingredientId))
-						.flatMap(foundIngredient -> {
-							Set<String> providersList = foundIngredient.getProviderId();
-
-							if (providersList == null) {
-								providersList = new HashSet<>();
-							}
-							providersList.add(foundProvider.getId());
-							foundIngredient.setProviderId(providersList);
-
-							return ingredientRepo.save(foundIngredient);
-						})
-				);
+	public Mono<Ingredient> removeProviderToIngredient(String ingredientId, String providerId, String username) {
+		return linkService.unlinkIngredientProviders(List.of(new LinkPairDTO(ingredientId, providerId)), username)
+				.then(ingredientRepo.findById(ingredientId));
 	}
 
 	@Transactional
-	public Mono<Ingredient> removeProviderToIngredient(String ingredientId, String providerId) {
-		return providerRepo.findById(providerId)
-				.switchIfEmpty(MonoEx.monoError(HttpStatus.NOT_FOUND, "No se encontró el proveedor con ID: " + providerId))
-				.flatMap(foundProvider -> ingredientRepo.findById(ingredientId)
-						.switchIfEmpty(MonoEx.monoError(HttpStatus.NOT_FOUND, "No se encontro ingrediente con el ID: " + ingredientId))
-						.flatMap(foundIngredient -> {
-							Set<String> providersList = foundIngredient.getProviderId();
-
-							if (providersList == null) {
-								return MonoEx.monoError(HttpStatus.BAD_REQUEST, "No hay proveedores en la lista");
-							}
-							providersList.remove(foundProvider.getId());
-							foundIngredient.setProviderId(providersList);
-
-							return ingredientRepo.save(foundIngredient);
-						})
-				);
+	public Mono<Void> linkProviders(List<LinkPairDTO> pairs, String username) {
+		return linkService.linkIngredientProviders(pairs, username);
+	}
+
+	@Transactional
+	public Mono<Void> unlinkProviders(List<LinkPairDTO> pairs, String username) {
+		return linkService.unlinkIngredientProviders(pairs, username);
 	}
 
 	@Transactional
 	public Mono<Void> deleteIngredient(String ingredientId) {
-		return recipeRepo.findByIngredientId(ingredientId)
-				.flatMap(recipe -> {
-					recipe.getIngredientsWithQuantity().remove(ingredientId);
-					return recipeRepo.save(recipe);
-				})
-				.then(ingredientRepo.deleteById(ingredientId)); // Elimina el ingrediente de la base de datos
+		// Quita el ingrediente de todas las recetas con un solo updateMany y luego lo elimina
+		return cascadeDeleteService.deleteIngredient(ingredientId);
 	}
 
 
@@ -135,30 +131,13 @@ public class IngredientService {
 		return existingIngredient;
 	}
 
-	private Mono<PagedResponse<Ingredient>> getAllIngredientsPaged(PageRequest pageRequest) {
-		Mono<Long> totalElements = ingredientRepo.count();
-		Flux<Ingredient> IngredientsFlux = ingredientRepo.findIngredientsPaged(pageRequest);
-
-		return Mono.zip(totalElements, IngredientsFlux.collectList())
-				.map(tuple -> new PagedResponse<>(
-						tuple.getT2(),
-						tuple.getT1(),
-						pageRequest.getPageNumber(),
-						pageRequest.getPageSize()
-				));
-	}
-
-	private Mono<PagedResponse<Ingredient>> getIngredientsByKeyword(PageRequest pageRequest, String keyword) {
-		Mono<Long> totalElements = ingredientRepo.countByKeyword(keyword);
-		Flux<Ingredient> IngredientsFlux = ingredientRepo.findByKeyword(keyword, pageRequest);
-
-		return Mono.zip(totalElements, IngredientsFlux.collectList())
-				.map(tuple -> new PagedResponse<>(
-						tuple.getT2(),
-						tuple.getT1(),
-						pageRequest.getPageNumber(),
-						pageRequest.getPageSize()
-				));
+	private Criteria keywordCriteria(String keyword) {
+		if (keyword == null || keyword.isEmpty()) {
+			return null;
+		}
+		return new Criteria().orOperator(
+				Criteria.where("ingredientName").regex(keyword, "i"),
+				Criteria.where("ingredientDescription").regex(keyword, "i"));
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+package com.taup.alimentos_mascotas.Services.Admins.Management;
+
+import com.taup.alimentos_mascotas.DTO.LinkPairDTO;
+import com.taup.alimentos_mascotas.Exceptions.MonoEx;
+import com.taup.alimentos_mascotas.Models.Admins.Finance.Provider;
+import com.taup.alimentos_mascotas.Models.Admins.Management.Ingredient;
+import com.taup.alimentos_mascotas.Models.Admins.Management.Product;
+import com.taup.alimentos_mascotas.Models.Admins.Management.Recipe;
+import com.taup.alimentos_mascotas.Services.Admins.FrontSide.ProductCatalogCache;
+import com.taup.alimentos_mascotas.Services.Common.CountCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene los vínculos receta-producto e ingrediente-proveedor con updates atómicos ($set, $addToSet, $pull)
+ * sobre ambos lados, sin leer ni reescribir los documentos completos.
+ * Un lote de pares se aplica con una sola escritura bulk por colección.
+ */
+@Service
+@RequiredArgsConstructor
+public class LinkMaintenanceService {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final ProductCatalogCache catalogCache;
+	private final CountCacheService countCache;
+
+	// ? Recetas - productos
+
+	/**
+	 * Asigna cada producto a su receta. Un producto tiene una sola receta: si estaba en otra,
+	 * se lo quita de la lista createdProducts de la receta anterior.
+	 */
+	public Mono<Void> linkRecipeProducts(List<LinkPairDTO> pairs, String username) {
+		return validate(pairs, true)
+				.then(ensureAllExist(Recipe.class, pairs, LinkPairDTO::getOwnerId, "Alguna de las recetas indicadas no existe"))
+				.then(ensureAllExist(Product.class, pairs, LinkPairDTO::getLinkedId, "Alguno de los productos indicados no existe"))
+				.then(Mono.defer(() -> {
+					Map<String, Set<String>> productsByRecipe = groupByOwner(pairs);
+					LocalDateTime now = LocalDateTime.now();
+
+					ReactiveBulkOperations productOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+					ReactiveBulkOperations recipeOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Recipe.class);
+
+					productsByRecipe.forEach((recipeId, productIds) -> {
+						productOps.updateMulti(Query.query(Criteria.where("_id").in(productIds)),
+								touch(new Update().set("recipeId", recipeId), username, now));
+
+						recipeOps.updateMulti(Query.query(Criteria.where("_id").ne(recipeId).and("createdProducts").in(productIds)),
+								touch(new Update().pullAll("createdProducts", productIds.toArray()), username, now));
+						recipeOps.updateOne(Query.query(Criteria.where("_id").is(recipeId)),
+								touch(new Update().addToSet("createdProducts").each(productIds.toArray()), username, now));
+					});
+
+					return productOps.execute().then(recipeOps.execute());
+				}))
+				.doOnSuccess(done -> invalidateRecipeProducts())
+				.then();
+	}
+
+	/**
+	 * Desvincula los pares indicados. El producto solo pierde su recipeId si todavía apuntaba a esa receta.
+	 */
+	public Mono<Void> unlinkRecipeProducts(List<LinkPairDTO> pairs, String username) {
+		return validate(pairs, false)
+				.then(ensureAllExist(Recipe.class, pairs, LinkPairDTO::getOwnerId, "Alguna de las recetas indicadas no existe"))
+				.then(ensureAllExist(Product.class, pairs, LinkPairDTO::getLinkedId, "Alguno de los productos indicados no existe"))
+				.then(Mono.defer(() -> {
+					Map<String, Set<String>> productsByRecipe = groupByOwner(pairs);
+					LocalDateTime now = LocalDateTime.now();
+
+					ReactiveBulkOperations productOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+					ReactiveBulkOperations recipeOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Recipe.class);
+
+					productsByRecipe.forEach((recipeId, productIds) -> {
+						productOps.updateMulti(Query.query(Criteria.where("_id").in(productIds).and("recipeId").is(recipeId)),
+								touch(new Update().unset("recipeId"), username, now));
+						recipeOps.updateOne(Query.query(Criteria.where("_id").is(recipeId)),
+								touch(new Update().pullAll("createdProducts", productIds.toArray()), username, now));
+					});
+
+					return productOps.execute().then(recipeOps.execute());
+				}))
+				.doOnSuccess(done -> invalidateRecipeProducts())
+				.then();
+	}
+
+	// ? Ingredientes - proveedores
+
+	/**
+	 * El proveedor no guarda la lista de ingredientes, así que el vínculo se escribe solo en el ingrediente.
+	 */
+	public Mono<Void> linkIngredientProviders(List<LinkPairDTO> pairs, String username) {
+		return updateIngredientProviders(pairs, true, username);
+	}
+
+	public Mono<Void> unlinkIngredientProviders(List<LinkPairDTO> pairs, String username) {
+		return updateIngredientProviders(pairs, false, username);
+	}
+
+	// ? Metodos locales
+
+	private Mono<Void> updateIngredientProviders(List<LinkPairDTO> pairs, boolean link, String username) {
+		return validate(pairs, false)
+				.then(ensureAllExist(Ingredient.class, pairs, LinkPairDTO::getOwnerId, "Alguno de los ingredientes indicados no existe"))
+				.then(ensureAllExist(Provider.class, pairs, LinkPairDTO::getLinkedId, "Alguno de los proveedores indicados no existe"))
+				.then(Mono.defer(() -> {
+					LocalDateTime now = LocalDateTime.now();
+					ReactiveBulkOperations ingredientOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Ingredient.class);
+
+					groupByOwner(pairs).forEach((ingredientId, providerIds) -> {
+						Update update = link
+								? new Update().addToSet("providerId").each(providerIds.toArray())
+								: new Update().pullAll("providerId", providerIds.toArray());
+						ingredientOps.updateOne(Query.query(Criteria.where("_id").is(ingredientId)),
+								touch(update, username, now));
+					});
+
+					return ingredientOps.execute();
+				}))
+				.doOnSuccess(done -> countCache.invalidate(Ingredient.class))
+				.then();
+	}
+
+	// Las escrituras bulk no publican eventos de guardado, así que ninguna caché se entera sola
+	private void invalidateRecipeProducts() {
+		catalogCache.invalidateAll();
+		countCache.invalidate(Product.class);
+		countCache.invalidate(Recipe.class);
+	}
+
+	private Mono<Void> validate(List<LinkPairDTO> pairs, boolean singleOwnerPerLinked) {
+		if (pairs == null || pairs.isEmpty()) {
+			return MonoEx.monoError(HttpStatus.BAD_REQUEST, "No se enviaron vínculos para procesar");
+		}
+		for (LinkPairDTO pair : pairs) {
+			if (pair.getOwnerId() == null || pair.getOwnerId().isBlank()
+					|| pair.getLinkedId() == null || pair.getLinkedId().isBlank()) {
+				return MonoEx.monoError(HttpStatus.BAD_REQUEST, "Todos los vínculos deben indicar ambos IDs");
+			}
+		}
+
+		if (singleOwnerPerLinked) {
+			Set<String> seen = new HashSet<>();
+			Set<String> linkedIds = new HashSet<>();
+			for (LinkPairDTO pair : pairs) {
+				if (seen.add(pair.getOwnerId() + "|" + pair.getLinkedId()) && !linkedIds.add(pair.getLinkedId())) {
+					return MonoEx.monoError(HttpStatus.BAD_REQUEST,
+							"El producto con ID " + pair.getLinkedId() + " no puede asignarse a más de una receta");
+				}
+			}
+		}
+		return Mono.empty();
+	}
+
+	// Un solo count por colección en lugar de un findById por documento
+	private Mono<Void> ensureAllExist(Class<?> type, List<LinkPairDTO> pairs, Function<LinkPairDTO, String> idOf, String notFoundMessage) {
+		return Mono.defer(() -> {
+			Set<String> ids = pairs.stream().map(idOf).collect(Collectors.toSet());
+			return mongoTemplate.count(Query.query(Criteria.where("_id").in(ids)), type)
+					.flatMap(found -> found == ids.size()
+							? Mono.<Void>empty()
+							: MonoEx.monoError(HttpStatus.NOT_FOUND, notFoundMessage));
+		});
+	}
+
+	// version y updatedAt cambian juntos: el ETag de los productos sale de updatedAt
+	private static Update touch(Update update, String username, LocalDateTime now) {
+		return update.set("modifiedBy", username)
+				.set("updatedAt", now)
+				.inc("version", 1);
+	}
+
+	private static Map<String, Set<String>> groupByOwner(Collection<LinkPairDTO> pairs) {
+		return pairs.stream().collect(Collectors.groupingBy(LinkPairDTO::getOwnerId, LinkedHashMap::new,
+				Collectors.mapping(LinkPairDTO::getLinkedId, Collectors.toCollection(LinkedHashSet::new))));
+	}
+}
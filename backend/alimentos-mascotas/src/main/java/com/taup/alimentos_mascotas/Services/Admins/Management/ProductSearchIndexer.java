@@ -0,0 +1,28 @@
+package com.taup.alimentos_mascotas.Services.Admins.Management;
+
+import com.taup.alimentos_mascotas.Models.Admins.Management.Product;
+import com.taup.alimentos_mascotas.Utils.SearchText;
+import org.reactivestreams.Publisher;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeConvertCallback;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mantiene los prefijos de búsqueda de los productos (searchPrefixes / namePrefixes) en cada guardado.
+ * Los callbacks se crean junto con el MappingMongoConverter, antes que el ReactiveMongoTemplate, así que este bean
+ * no puede depender del template: el completado de los productos viejos está en SearchPrefixBackfillConfig.
+ */
+@Component
+public class ProductSearchIndexer implements ReactiveBeforeConvertCallback<Product> {
+
+	@Override
+	public Publisher<Product> onBeforeConvert(Product product, String collection) {
+		applySearchFields(product);
+		return Mono.just(product);
+	}
+
+	public static void applySearchFields(Product product) {
+		product.setSearchPrefixes(SearchText.prefixes(product.getProductName(), product.getProductDescription()));
+		product.setNamePrefixes(SearchText.prefixes(product.getProductName()));
+	}
+}
@@ -1,14 +1,26 @@
 package com.taup.alimentos_mascotas.Services.Admins.Management;
 
+import com.taup.alimentos_mascotas.DTO.LinkPairDTO;
 import com.taup.alimentos_mascotas.DTO.PagedResponse;
 import com.taup.alimentos_mascotas.DTO.ProductDTO;
+import com.taup.alimentos_mascotas.DTO.ProductRowDTO;
 import com.taup.alimentos_mascotas.DTO.ProductWithImageDTO;
 import com.taup.alimentos_mascotas.Exceptions.MonoEx;
 import com.taup.alimentos_mascotas.Models.Admins.Management.Product;
 import com.taup.alimentos_mascotas.Repositories.Admins.Management.ProductRepository;
-import com.taup.alimentos_mascotas.Repositories.Admins.Management.RecipeRepository;
+import com.taup.alimentos_mascotas.Services.Admins.FrontSide.ProductCatalogCache;
+import com.taup.alimentos_mascotas.Services.Admins.Management.ImageUploadService.UploadedImage;
+import com.taup.alimentos_mascotas.Services.Common.PagingService;
+import com.taup.alimentos_mascotas.Utils.RecipeScaler;
+import com.taup.alimentos_mascotas.Utils.SearchText;
+import com.taup.alimentos_mascotas.Utils.StockItemType;
 import lombok.AllArgsConstructor;
+import org.bson.Document;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.stereotype.Service;
@@ -18,27 +30,44 @@ import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
+import java.util.Objects;
 
 @Service
 @AllArgsConstructor
 public class ProductService {
 	
 	private final ProductRepository productRepo;
-	private final RecipeRepository recipeRepo;
 	private final ImageUploadService imageUploadService;
+	private final PagingService pagingService;
+	private final ProductCatalogCache catalogCache;
+	private final LinkMaintenanceService linkService;
+	private final CascadeDeleteService cascadeDeleteService;
+	private final StockLedgerService stockLedgerService;
 
 	@Transactional(readOnly = true)
-	public Mono<PagedResponse<Product>> listAllPaged(int page, int size, String keyword) {
-		PageRequest pageRequest = PageRequest.of(page, size);
-
-		if(keyword != null && !keyword.isEmpty()){
-			return getProductsByKeyword(pageRequest, keyword);
+	public Mono<PagedResponse<Product>> listAllPaged(int page, int size, String keyword, String after, boolean withTotal) {
+		if (SearchText.hasNoTerms(keyword)) {
+			return Mono.just(emptyPage(page, size, withTotal && !PagingService.isCursorMode(after)));
+		}
+		if (PagingService.isCursorMode(after)) {
+			return pagingService.findPageAfter(Product.class, keywordCriteria(keyword), after, size);
 		}
 
-		return getAllProductsPaged(pageRequest);
+		List<String> terms = SearchText.tokens(keyword);
+		return pagingService.findPage(Product.class, searchStages(terms), String.join(" ", terms),
+				PageRequest.of(page, size), withTotal);
+	}
+
+	@Transactional(readOnly = true)
+	public Mono<PagedResponse<ProductRowDTO>> listRows(int page, int size, String keyword, String fields, boolean withTotal) {
+		if (SearchText.hasNoTerms(keyword)) {
+			return Mono.just(emptyPage(page, size, withTotal));
+		}
+		return pagingService.findRows(Product.class, ProductRowDTO.class, keywordCriteria(keyword),
+				String.join(" ", SearchText.tokens(keyword)), fields, PageRequest.of(page, size), withTotal);
 	}
 
 	@Transactional(readOnly = true)
@@ -88,21 +117,20 @@ public class ProductService {
 		}
 
 		FilePart imageFile = dto.getImage();
-		Mono<String> imageUrlMono;
+		Mono<UploadedImage> imageMono;
 		if (imageFile != null) {
-			imageUrlMono = imageUploadService.uploadImage(imageFile, username);
+			imageMono = imageUploadService.uploadImage(imageFile, username);
 		} else {
-			imageUrlMono = Mono.just(""); // O puedes manejarlo como Mono.empty() si prefieres
+			imageMono = Mono.just(new UploadedImage("", null)); // O puedes manejarlo como Mono.empty() si prefieres
 		}
 
-		return imageUrlMono.flatMap(imageUrl -> {
+		return imageMono.flatMap(image -> {
 			Product product = new Product();
 			product.setProductName(dto.getProductName());
 			product.setProductDescription(dto.getProductDescription());
 			product.setProductDetails(dto.getProductDetails());
 			product.setProductCode(dto.getProductCode());
-			product.setRecipeId(dto.getRecipeId());
-			product.setStock(dto.getStock());
+			product.setStock(BigDecimal.ZERO); // El stock inicial entra como ajuste del libro
 			product.setCostPrice(dto.getCostPrice());
 			product.setDiscountPercent(dto.getDiscountPercent());
 			product.setReviewsIds(dto.getReviewsIds());
@@ -110,11 +138,15 @@ public class ProductService {
 			product.setSellingPrice(dto.getSellingPrice());
 			product.setUpdatedAt(LocalDateTime.now());
 			product.setModifiedBy(username);
-			product.setImageUrl(imageUrl);
+			product.setImageUrl(image.url());
+			product.setImageVariants(image.variants());
 			product.setCreatedAt(LocalDateTime.now());
 			product.setCreatedBy(username);
 			return productRepo.save(product);
-		});
+		})
+		.flatMap(saved -> openingStock(saved, RecipeScaler.toBigDecimal(dto.getStock())))
+		.flatMap(saved -> syncRecipe(saved, null, dto.getRecipeId(), username))
+		.doOnSuccess(saved -> catalogCache.invalidateAll());
 	}
 
 
@@ -127,23 +159,22 @@ public class ProductService {
 		return productRepo.findById(productId)
 			.switchIfEmpty(MonoEx.monoError(HttpStatus.NOT_FOUND, "No se encontró el producto con ID: " + productId))
 			.flatMap(existingProduct -> {
-				Mono<String> imageUrlMono;
+				String previousRecipeId = existingProduct.getRecipeId();
+				Mono<UploadedImage> imageMono;
 				FilePart imageFile = dto.getImage();
 
-				// Si se envía una nueva imagen, súbela; si no, conserva la actual
+				// Si se envía una nueva imagen, súbela; si no, conserva la actual con sus variantes
 				if (imageFile != null) {
-					imageUrlMono = imageUploadService.uploadImage(imageFile, username);
+					imageMono = imageUploadService.uploadImage(imageFile, username);
 				} else {
-					imageUrlMono = Mono.just(existingProduct.getImageUrl());
+					imageMono = Mono.just(new UploadedImage(existingProduct.getImageUrl(), existingProduct.getImageVariants()));
 				}
 
-				return imageUrlMono.flatMap(imageUrl -> {
+				return imageMono.flatMap(image -> {
 					existingProduct.setProductName(dto.getProductName());
 					existingProduct.setProductDescription(dto.getProductDescription());
 					existingProduct.setProductDetails(dto.getProductDetails());
 					existingProduct.setProductCode(dto.getProductCode());
-					existingProduct.setRecipeId(dto.getRecipeId());
-					existingProduct.setStock(dto.getStock());
 					existingProduct.setCostPrice(dto.getCostPrice());
 					existingProduct.setDiscountPercent(dto.getDiscountPercent());
 					existingProduct.setReviewsIds(dto.getReviewsIds());
@@ -151,111 +182,88 @@ public class ProductService {
 					existingProduct.setSellingPrice(dto.getSellingPrice());
 					existingProduct.setModifiedBy(username);
 					existingProduct.setUpdatedAt(LocalDateTime.now());
-					existingProduct.setImageUrl(imageUrl);
+					existingProduct.setImageUrl(image.url());
+					existingProduct.setImageVariants(image.variants());
 					// No actualices createdAt ni createdBy en una edición
 
-					return productRepo.save(existingProduct);
+					return productRepo.save(existingProduct)
+							.flatMap(saved -> syncRecipe(saved, previousRecipeId, dto.getRecipeId(), username));
 				});
-			});
+			})
+			// No se reintenta: el reintento volvería a subir la imagen
+			.onErrorMap(OptimisticLockingFailureException.class, e -> new ResponseStatusException(HttpStatus.CONFLICT,
+					"El producto fue modificado por otro usuario, vuelva a intentarlo."))
+			.doOnSuccess(updated -> catalogCache.invalidateAll());
 	}
 
 	@Transactional
-	public Mono<Product> addRecipeToProduct(String productId, String recipeId) {
-		return recipeRepo.findById(recipeId)
-				.switchIfEmpty(MonoEx.monoError(HttpStatus.NOT_FOUND, "No se encotró la receta con el ID: " + recipeId))
-				.flatMap( foundRecipe -> productRepo.findById(productId)
-						.switchIfEmpty(MonoEx.monoError(HttpStatus.NOT_FOUND, "No se encotró el producto con ID: " + productId))
-						.flatMap( foundProduct -> {
-							Set<String> productIds = foundRecipe.getCreatedProducts();
-
-							if(productIds == null) {
-								productIds = new HashSet<>();
-							}
-
-							productIds.add(foundProduct.getId());
-							foundProduct.setRecipeId(foundRecipe.getId());
-
-							return recipeRepo.save(foundRecipe)
-									.then(productRepo.save(foundProduct));
-						}));
+	public Mono<Product> addRecipeToProduct(String productId, String recipeId, String username) {
+		return linkService.linkRecipeProducts(List.of(new LinkPairDTO(recipeId, productId)), username)
+				.then(productRepo.findById(productId));
 	}
 
 	@Transactional
-	public Mono<Product> removeRecipeToProduct(String productId, String recipeId) {
-		return recipeRepo.findById(recipeId)
-				.switchIfEmpty(MonoEx.monoError(HttpStatus.NOT_FOUND, "No se encotró la receta con el ID: " + recipeId))
-				.flatMap( foundRecipe -> productRepo.findById(productId)
-						.switchIfEmpty(MonoEx.monoError(HttpStatus.NOT_FOUND, "No se encotró el producto con ID: " + productId))
-						.flatMap( foundProduct -> {
-
-							Set<String> productIds = foundRecipe.getCreatedProducts();
-
-							if(productIds == null) {
-								return MonoEx.monoError(HttpStatus.BAD_REQUEST, "No hay productos en la lista");
-							}
-
-							productIds.remove(foundProduct.getId());
-							foundProduct.setRecipeId(null);
-
-							return recipeRepo.save(foundRecipe)
-									.then(productRepo.save(foundProduct));
-						}));
+	public Mono<Product> removeRecipeToProduct(String productId, String recipeId, String username) {
+		return linkService.unlinkRecipeProducts(List.of(new LinkPairDTO(recipeId, productId)), username)
+				.then(productRepo.findById(productId));
 	}
 
 	@Transactional
 	public Mono<Void> delete (String productId){
-		return recipeRepo.findByProductId(productId)
-				.flatMap(recipe -> {
-
-					Set<String> productsIds = recipe.getCreatedProducts();
-
-					productsIds.remove(productId);
+		return cascadeDeleteService.deleteProduct(productId)
+				.doOnSuccess(deleted -> catalogCache.invalidateAll());
+	}
 
-					recipe.setCreatedProducts(productsIds);
+	/**
+	 * Etapas de búsqueda por prefijos: filtra por todos los términos y ordena primero los que coinciden en el nombre.
+	 * Sin términos no filtra ni ordena.
+	 */
+	public static List<AggregationOperation> searchStages(List<String> terms) {
+		if (terms.isEmpty()) {
+			return List.of();
+		}
 
-					return recipeRepo.save(recipe);
-				})
-				.then(productRepo.deleteById(productId));
+		Document score = new Document("$size", new Document("$setIntersection",
+				List.of(terms, new Document("$ifNull", List.of("$namePrefixes", List.of())))));
+		return List.of(
+				Aggregation.match(Criteria.where("searchPrefixes").all(terms)),
+				context -> new Document("$addFields", new Document("searchScore", score)),
+				context -> new Document("$sort", new Document("searchScore", -1).append("productName", 1).append("_id", 1)));
 	}
 
 	// ? Metodos locales
 
-	private Product mappingProductToUpdate(Product existingProduct, Product product, String username) {
-		existingProduct.setProductCode(product.getProductCode());
-		existingProduct.setProductName(product.getProductName());
-		existingProduct.setRecipeId(product.getRecipeId());
-		existingProduct.setProductDescription(product.getProductDescription());
-		existingProduct.setStock(product.getStock());
-		existingProduct.setModifiedBy(username);
-		existingProduct.setUpdatedAt(LocalDateTime.now());
-
-		return existingProduct;
+	// El stock no se edita con el producto: las correcciones son ajustes en /api/stock/ajustes
+	private Mono<Product> openingStock(Product saved, BigDecimal stock) {
+		if (stock == null || stock.signum() == 0) {
+			return Mono.just(saved);
+		}
+		return stockLedgerService.adjust(StockItemType.PRODUCT, saved.getId(), stock, saved.getId())
+				.then(productRepo.findById(saved.getId()));
 	}
 
 
-	private Mono<PagedResponse<Product>> getAllProductsPaged(PageRequest pageRequest) {
-		Mono<Long> totalElements = productRepo.count();
-		Flux<Product> productsFlux = productRepo.findProductsPaged(pageRequest);
+	static <T> PagedResponse<T> emptyPage(int page, int size, boolean withTotal) {
+		return new PagedResponse<>(List.of(), withTotal ? 0L : null, page, size);
+	}
+
+	// La receta no se escribe con el resto del producto: LinkMaintenanceService mantiene recipeId y el
+	// createdProducts de la receta anterior y de la nueva en la misma operación
+	private Mono<Product> syncRecipe(Product saved, String previousRecipeId, String recipeId, String username) {
+		String targetRecipeId = recipeId == null || recipeId.isBlank() ? null : recipeId;
+		if (Objects.equals(previousRecipeId, targetRecipeId)) {
+			return Mono.just(saved);
+		}
 
-		return Mono.zip(totalElements, productsFlux.collectList())
-				.map(tuple -> new PagedResponse<>(
-						tuple.getT2(),
-						tuple.getT1(),
-						pageRequest.getPageNumber(),
-						pageRequest.getPageSize()
-				));
+		Mono<Void> link = targetRecipeId != null
+				? linkService.linkRecipeProducts(List.of(new LinkPairDTO(targetRecipeId, saved.getId())), username)
+				: linkService.unlinkRecipeProducts(List.of(new LinkPairDTO(previousRecipeId, saved.getId())), username);
+		return link.then(productRepo.findById(saved.getId()));
 	}
 
-	private Mono<PagedResponse<Product>> getProductsByKeyword(PageRequest pageRequest, String keyword) {
-		Mono<Long> totalElements = productRepo.countByKeyword(keyword);
-		Flux<Product> productsFlux= productRepo.findByKeyword(keyword, pageRequest);
-		return Mono.zip(totalElements, productsFlux.collectList())
-				.map(tuple -> new PagedResponse<>(
-						tuple.getT2(),
-						tuple.getT1(),
-						pageRequest.getPageNumber(),
-						pageRequest.getPageSize()
-				));
+	private Criteria keywordCriteria(String keyword) {
+		List<String> terms = SearchText.tokens(keyword);
+		return terms.isEmpty() ? null : Criteria.where("searchPrefixes").all(terms);
 	}
 
 }
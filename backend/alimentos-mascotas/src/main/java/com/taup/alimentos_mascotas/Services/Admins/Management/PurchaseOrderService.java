@@ -1,11 +1,15 @@
 package com.taup.alimentos_mascotas.Services.Admins.Management;
 
 import com.taup.alimentos_mascotas.DTO.PagedResponse;
+import com.taup.alimentos_mascotas.DTO.PurchaseOrderRowDTO;
 import com.taup.alimentos_mascotas.Exceptions.MonoEx;
 import com.taup.alimentos_mascotas.Models.Admins.Management.PurchaseOrder;
 import com.taup.alimentos_mascotas.Repositories.Admins.Management.PurchaseOrderRepository;
+import com.taup.alimentos_mascotas.Services.Common.PagingService;
+import com.taup.alimentos_mascotas.Utils.OptimisticRetry;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,10 +24,11 @@ import java.time.LocalDateTime;
 public class PurchaseOrderService {
 
 	private final PurchaseOrderRepository purchaseOrderRepo;
+	private final PagingService pagingService;
 
 	@Transactional(readOnly = true)
 	public Mono<PagedResponse<PurchaseOrder>> listAllPaged(int page, int size, String keyword,
-	                                                       LocalDate startDate, LocalDate endDate) {
+	                                                       LocalDate startDate, LocalDate endDate, String after, boolean withTotal) {
 
 		PageRequest pageRequest = PageRequest.of(page, size);
 
@@ -31,11 +36,23 @@ public class PurchaseOrderService {
 			return MonoEx.monoError(HttpStatus.BAD_REQUEST, "La fecha de finalizacion debe ser despues de la fecha de inicio");
 		}
 
-		if (keyword != null && !keyword.isEmpty()) {
-			return getPurchaseOrdersByKeyword(pageRequest, keyword, startDate, endDate);
+		if (PagingService.isCursorMode(after)) {
+			return pagingService.findPageAfter(PurchaseOrder.class, keywordCriteria(keyword, startDate, endDate), after, size);
 		}
 
-		return getAllPurchaseOrdersPaged(pageRequest);
+		String filterKey = (keyword != null && !keyword.isEmpty()) ? keyword + "|" + startDate + "|" + endDate : null;
+		return pagingService.findPage(PurchaseOrder.class, keywordCriteria(keyword, startDate, endDate), filterKey, pageRequest, withTotal);
+	}
+
+	@Transactional(readOnly = true)
+	public Mono<PagedResponse<PurchaseOrderRowDTO>> listRows(int page, int size, String keyword, LocalDate startDate, LocalDate endDate,
+	                                                         String fields, boolean withTotal) {
+		if (endDate.isBefore(startDate)) {
+			return MonoEx.monoError(HttpStatus.BAD_REQUEST, "La fecha de finalizacion debe ser despues de la fecha de inicio");
+		}
+
+		return pagingService.findRows(PurchaseOrder.class, PurchaseOrderRowDTO.class, keywordCriteria(keyword, startDate, endDate),
+				keyword + "|" + startDate + "|" + endDate, fields, PageRequest.of(page, size), withTotal);
 	}
 
 	@Transactional(readOnly = true)
@@ -69,7 +86,8 @@ public class PurchaseOrderService {
 				.flatMap(existingPurchaseOrder -> {
 					PurchaseOrder updatedPurchaseOrder = mappingPurchaseOrderToUpdate(existingPurchaseOrder, purchaseOrder, username);
 					return purchaseOrderRepo.save(updatedPurchaseOrder);
-				});
+				})
+				.retryWhen(OptimisticRetry.onConflict());
 	}
 
 	@Transactional
@@ -80,7 +98,8 @@ public class PurchaseOrderService {
 					existingPurchaseOrder.setAuthorizedBy(username);
 					existingPurchaseOrder.setIsAuthorized(true);
 					return purchaseOrderRepo.save(existingPurchaseOrder);
-				});
+				})
+				.retryWhen(OptimisticRetry.onConflict());
 	}
 
 	@Transactional
@@ -109,29 +128,14 @@ public class PurchaseOrderService {
 		return existingPurchaseOrder;
 	}
 
-	private Mono<PagedResponse<PurchaseOrder>> getAllPurchaseOrdersPaged(PageRequest pageRequest) {
-		Mono<Long> totalElements = purchaseOrderRepo.count();
-		Flux<PurchaseOrder> PurchaseOrdersFlux = purchaseOrderRepo.findPurchaseOrdersPaged(pageRequest);
-
-		return Mono.zip(totalElements, PurchaseOrdersFlux.collectList())
-				.map(tuple -> new PagedResponse<>(
-						tuple.getT2(),
-						tuple.getT1(),
-						pageRequest.getPageNumber(),
-						pageRequest.getPageSize()
-				));
-	}
-
-	private Mono<PagedResponse<PurchaseOrder>> getPurchaseOrdersByKeyword(PageRequest pageRequest, String keyword, LocalDate startDate, LocalDate endDate) {
-		Mono<Long> totalElements = purchaseOrderRepo.countByKeywordAndDateRange(keyword, startDate, endDate);
-		Flux<PurchaseOrder> purchaseOrdersFlux = purchaseOrderRepo.findByKeywordAndDateRange(keyword, startDate, endDate, pageRequest);
-
-		return Mono.zip(totalElements, purchaseOrdersFlux.collectList())
-				.map(tuple -> new PagedResponse<>(
-						tuple.getT2(),
-						tuple.getT1(),
-						pageRequest.getPageNumber(),
-						pageRequest.getPageSize()
-				));
+	private Criteria keywordCriteria(String keyword, LocalDate startDate, LocalDate endDate) {
+		if (keyword == null || keyword.isEmpty()) {
+			return null;
+		}
+		return new Criteria().andOperator(
+				new Criteria().orOperator(
+						Criteria.where("supplierName").regex(keyword, "i"),
+						Criteria.where("ingredients." + keyword).exists(true)),
+				Criteria.where("orderDate").gte(startDate).lte(endDate));
 	}
 }
@@ -1,12 +1,16 @@
 package com.taup.alimentos_mascotas.Services.Admins.Management;
 
+import com.taup.alimentos_mascotas.DTO.LinkPairDTO;
 import com.taup.alimentos_mascotas.DTO.PagedResponse;
+import com.taup.alimentos_mascotas.DTO.RecipeRowDTO;
 import com.taup.alimentos_mascotas.Exceptions.MonoEx;
 import com.taup.alimentos_mascotas.Models.Admins.Management.Recipe;
-import com.taup.alimentos_mascotas.Repositories.Admins.Management.ProductRepository;
 import com.taup.alimentos_mascotas.Repositories.Admins.Management.RecipeRepository;
+import com.taup.alimentos_mascotas.Services.Common.PagingService;
+import com.taup.alimentos_mascotas.Utils.OptimisticRetry;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,25 +18,30 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 
 @Service
 @AllArgsConstructor
 public class RecipeService {
 
 	private final RecipeRepository recipeRepo;
-	private final ProductRepository productRepo;
+	private final PagingService pagingService;
+	private final LinkMaintenanceService linkService;
+	private final CascadeDeleteService cascadeDeleteService;
 
 	@Transactional(readOnly = true)
-	public Mono<PagedResponse<Recipe>> listAllPaged(int page, int size, String keyword) {
-		PageRequest pageRequest = PageRequest.of(page, size);
-
-		if(keyword != null && !keyword.isEmpty()){
-			return getRecipesByKeyword(pageRequest, keyword);
+	public Mono<PagedResponse<Recipe>> listAllPaged(int page, int size, String keyword, String after, boolean withTotal) {
+		if (PagingService.isCursorMode(after)) {
+			return pagingService.findPageAfter(Recipe.class, keywordCriteria(keyword), after, size);
 		}
 
-		return getAllRecipesPaged(pageRequest);
+		return pagingService.findPage(Recipe.class, keywordCriteria(keyword), keyword, PageRequest.of(page, size), withTotal);
+	}
+
+	@Transactional(readOnly = true)
+	public Mono<PagedResponse<RecipeRowDTO>> listRows(int page, int size, String keyword, String fields, boolean withTotal) {
+		return pagingService.findRows(Recipe.class, RecipeRowDTO.class, keywordCriteria(keyword), keyword,
+				fields, PageRequest.of(page, size), withTotal);
 	}
 
 	@Transactional(readOnly = true)
@@ -64,65 +73,35 @@ public class RecipeService {
 				.flatMap(existingRecipe -> {
 							Recipe updatedRecipe = mappingRecipeToUpdate(existingRecipe, recipe, username);
 							return recipeRepo.save(updatedRecipe);
-						});
+						})
+				.retryWhen(OptimisticRetry.onConflict());
 	}
 
 	@Transactional
 	public Mono<Recipe> addProductToRecipe (String recipeId, String productId, String username) {
-		return recipeRepo.findById(recipeId)
-				.switchIfEmpty(MonoEx.monoError(HttpStatus.NOT_FOUND, "No se encontro la receta con ID: " + recipeId))
-				.flatMap(foundRecipe -> productRepo.findById(productId)
-								.switchIfEmpty(MonoEx.monoError(HttpStatus.NOT_FOUND, "No se encontro el producto con ID: " + productId))
-								.flatMap(foundProduct -> {
-									Set<String> productsList = foundRecipe.getCreatedProducts();
-									if(productsList == null) {
-										productsList = new HashSet<>();
-									}
-									productsList.add(productId);
-									foundProduct.setRecipeId(recipeId);
-									
-									foundRecipe.setModifiedBy(username);
-									foundRecipe.setUpdatedAt(LocalDateTime.now());
-									foundRecipe.setCreatedProducts(productsList);
-
-									return productRepo.save(foundProduct)
-											.then(recipeRepo.save(foundRecipe));
-								})
-						);
+		return linkService.linkRecipeProducts(List.of(new LinkPairDTO(recipeId, productId)), username)
+				.then(recipeRepo.findById(recipeId));
 	}
 
 	@Transactional
 	public Mono<Recipe> removeProductFromRecipe (String recipeId, String productId, String username) {
-		return recipeRepo.findById(recipeId)
-				.switchIfEmpty(MonoEx.monoError(HttpStatus.NOT_FOUND, "No se encontro la receta con ID: " + recipeId))
-				.flatMap(foundRecipe -> productRepo.findById(productId)
-						.switchIfEmpty(MonoEx.monoError(HttpStatus.NOT_FOUND, "No se encontro el producto con ID: " + productId))
-						.flatMap(foundProduct -> {
-
-							Set<String> productsList = foundRecipe.getCreatedProducts();
-
-							if(productsList == null) {
-								return MonoEx.monoError(HttpStatus.BAD_REQUEST, "No hay productos en la lista");
-							}
-							productsList.remove(productId);
-							foundRecipe.setModifiedBy(username);
-							foundRecipe.setUpdatedAt(LocalDateTime.now());
-							foundProduct.setRecipeId(null);
-
-							return productRepo.save(foundProduct)
-									.then(recipeRepo.save(foundRecipe));
-						})
-				);
+		return linkService.unlinkRecipeProducts(List.of(new LinkPairDTO(recipeId, productId)), username)
+				.then(recipeRepo.findById(recipeId));
+	}
+
+	@Transactional
+	public Mono<Void> linkProducts(List<LinkPairDTO> pairs, String username) {
+		return linkService.linkRecipeProducts(pairs, username);
+	}
+
+	@Transactional
+	public Mono<Void> unlinkProducts(List<LinkPairDTO> pairs, String username) {
+		return linkService.unlinkRecipeProducts(pairs, username);
 	}
 
 	@Transactional
 	public Mono<Void> delete(String recipeId) {
-		return productRepo.findByRecipeId(recipeId)
-				.flatMap(product -> {
-					product.setRecipeId(null);
-					return productRepo.save(product);
-				})
-				.then(recipeRepo.deleteById(recipeId));
+		return cascadeDeleteService.deleteRecipe(recipeId);
 	}
 
 
@@ -142,30 +121,13 @@ public class RecipeService {
 	}
 
 
-	private Mono<PagedResponse<Recipe>> getAllRecipesPaged(PageRequest pageRequest) {
-		Mono<Long> totalElements = recipeRepo.count();
-		Flux<Recipe> recipesFlux = recipeRepo.findRecipesPaged(pageRequest);
-
-		return Mono.zip(totalElements, recipesFlux.collectList())
-				.map(tuple -> new PagedResponse<>(
-						tuple.getT2(),
-						tuple.getT1(),
-						pageRequest.getPageNumber(),
-						pageRequest.getPageSize()
-				));
-	}
-
-	private Mono<PagedResponse<Recipe>> getRecipesByKeyword(PageRequest pageRequest, String keyword) {
-		Mono<Long> totalElements = recipeRepo.countByKeyword(keyword);
-		Flux<Recipe> recipesFlux = recipeRepo.findByKeyword(keyword, pageRequest);
-
-		return Mono.zip(totalElements, recipesFlux.collectList())
-				.map(tuple -> new PagedResponse<>(
-						tuple.getT2(),
-						tuple.getT1(),
-						pageRequest.getPageNumber(),
-						pageRequest.getPageSize()
-				));
+	private Criteria keywordCriteria(String keyword) {
+		if (keyword == null || keyword.isEmpty()) {
+			return null;
+		}
+		return new Criteria().orOperator(
+				Criteria.where("recipeName").regex(keyword, "i"),
+				Criteria.where("recipeDescription").regex(keyword, "i"));
 	}
 
 }
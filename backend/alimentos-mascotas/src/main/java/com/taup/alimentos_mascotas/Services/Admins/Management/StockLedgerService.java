@@ -0,0 +1,392 @@
+package com.taup.alimentos_mascotas.Services.Admins.Management;
+
+import com.taup.alimentos_mascotas.Exceptions.MonoEx;
+import com.taup.alimentos_mascotas.Models.Admins.Management.Ingredient;
+import com.taup.alimentos_mascotas.Models.Admins.Management.Product;
+import com.taup.alimentos_mascotas.Models.Admins.Management.StockMovement;
+import com.taup.alimentos_mascotas.Models.Admins.Management.StockSnapshot;
+import com.taup.alimentos_mascotas.Models.Admins.Management.WorkOrder;
+import com.taup.alimentos_mascotas.Repositories.Admins.Management.StockMovementRepository;
+import com.taup.alimentos_mascotas.Repositories.Admins.Management.StockSnapshotRepository;
+import com.taup.alimentos_mascotas.Utils.RecipeScaler;
+import com.taup.alimentos_mascotas.Utils.StockItemType;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Libro de movimientos de stock (solo inserciones) con saldos materializados en Ingredient.stock
+ * y Product.stock. Los saldos se actualizan con $inc, así dos operaciones concurrentes no se pisan.
+ * Registrar es idempotente: cada movimiento se inserta una vez (índice único por referencia) y su $inc
+ * se aplica una sola vez gracias a la marca pendingMovements del item. Si algo falla a mitad de camino,
+ * volver a registrar o la reconciliación programada terminan de aplicar lo pendiente.
+ * Un lote de movimientos cuesta una cantidad fija de escrituras (bulk por colección), no una por movimiento.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockLedgerService {
+
+	public static final String WORK_ORDER_CONSUMPTION = "CONSUMO_ORDEN_TRABAJO";
+	public static final String WORK_ORDER_PRODUCTION = "PRODUCCION_ORDEN_TRABAJO";
+	public static final String MANUAL_ADJUSTMENT = "AJUSTE_MANUAL";
+
+	// Desde el inicio del libro, para los items que todavía no tienen snapshot
+	private static final LocalDateTime LEDGER_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+	private static final int RECONCILE_BATCH = 500;
+	private static final int DUPLICATE_KEY = 11000;
+
+	private final StockMovementRepository movementRepo;
+	private final StockSnapshotRepository snapshotRepo;
+	private final ReactiveMongoTemplate mongoTemplate;
+
+	/**
+	 * Descuenta los ingredientes usados y suma la cantidad producida de una orden completada.
+	 */
+	public Mono<Void> recordWorkOrderCompletion(WorkOrder workOrder) {
+		LocalDateTime now = LocalDateTime.now();
+		List<StockMovement> movements = new ArrayList<>();
+
+		if (workOrder.getUsedIngredients() != null) {
+			for (Map.Entry<String, Number> entry : workOrder.getUsedIngredients().entrySet()) {
+				BigDecimal used = RecipeScaler.toBigDecimal(entry.getValue());
+				if (used != null && used.signum() != 0) {
+					movements.add(movement(StockItemType.INGREDIENT, entry.getKey(), used.negate(),
+							WORK_ORDER_CONSUMPTION, workOrder.getId(), now));
+				}
+			}
+		}
+
+		BigDecimal produced = RecipeScaler.toBigDecimal(workOrder.getCompletedQuantity());
+		if (produced != null && produced.signum() != 0) {
+			movements.add(movement(StockItemType.PRODUCT, workOrder.getProductId(), produced,
+					WORK_ORDER_PRODUCTION, workOrder.getId(), now));
+		}
+
+		return record(movements);
+	}
+
+	/**
+	 * Ajuste manual de stock (corrección de inventario o stock inicial). Es la única forma de cambiar
+	 * el saldo fuera de las órdenes de trabajo. Sin referencia se genera una; con la misma referencia
+	 * el ajuste se registra una sola vez.
+	 */
+	public Mono<Void> adjust(StockItemType itemType, String itemId, BigDecimal quantity, String referenceId) {
+		if (quantity == null || quantity.signum() == 0) {
+			return MonoEx.monoError(HttpStatus.BAD_REQUEST, "La cantidad del ajuste debe ser distinta de cero.");
+		}
+
+		String reference = referenceId != null && !referenceId.isBlank() ? referenceId : UUID.randomUUID().toString();
+		return mongoTemplate.exists(Query.query(Criteria.where("_id").is(itemId)), itemClassOf(itemType))
+				.flatMap(exists -> exists
+						? record(List.of(movement(itemType, itemId, quantity, MANUAL_ADJUSTMENT, reference, LocalDateTime.now())))
+						: MonoEx.monoError(HttpStatus.NOT_FOUND, "No se encontró el item con ID: " + itemId));
+	}
+
+	/**
+	 * Inserta los movimientos (los ya registrados con la misma referencia se ignoran) y aplica al saldo
+	 * los que todavía no se aplicaron. Se puede llamar de nuevo con los mismos movimientos sin duplicar nada.
+	 */
+	public Mono<Void> record(List<StockMovement> movements) {
+		if (movements.isEmpty()) {
+			return Mono.empty();
+		}
+
+		movements.forEach(movement -> movement.setApplied(false));
+		// Unordered: un duplicado (movimiento ya insertado en un intento anterior) no frena al resto del lote
+		return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, StockMovement.class)
+				.insert(movements)
+				.execute()
+				.then()
+				.onErrorResume(StockLedgerService::onlyDuplicates, e -> Mono.empty())
+				.thenMany(findPending(movements))
+				.collectList()
+				.flatMap(this::applyAll);
+	}
+
+	/**
+	 * Saldo de un item a una fecha: último snapshot anterior + movimientos posteriores hasta esa fecha.
+	 * Sin snapshot previo (item anterior al libro cuyo snapshot inicial todavía no se tomó, o item nuevo)
+	 * el saldo de apertura es el stock actual menos lo que el libro ya le aplicó, y se suma el libro hasta esa fecha.
+	 */
+	public Mono<BigDecimal> balanceAsOf(StockItemType itemType, String itemId, LocalDateTime asOf) {
+		return snapshotRepo.findFirstByItemTypeAndItemIdAndTakenAtLessThanEqualOrderByTakenAtDesc(itemType, itemId, asOf)
+				.flatMap(snapshot -> sumOf(movementRepo.sumQuantityBetween(itemType.name(), itemId, snapshot.getTakenAt(), asOf))
+						.map(moved -> snapshot.getBalance().add(moved)))
+				.switchIfEmpty(Mono.defer(() -> Mono.zip(
+								openingBalance(itemType, itemId),
+								sumOf(movementRepo.sumQuantityBetween(itemType.name(), itemId, LEDGER_START, asOf)))
+						.map(tuple -> tuple.getT1().add(tuple.getT2()))));
+	}
+
+	public Flux<StockMovement> getMovements(StockItemType itemType, String itemId, LocalDateTime from, LocalDateTime to) {
+		return movementRepo.findByItemTypeAndItemIdAndOccurredAtBetweenOrderByOccurredAtAsc(itemType, itemId, from, to);
+	}
+
+	/**
+	 * Guarda un snapshot por item. El primero toma el saldo materializado como saldo inicial;
+	 * los siguientes se calculan desde el snapshot anterior y el libro.
+	 */
+	@Scheduled(cron = "${stock.snapshot.cron:0 0 3 * * *}")
+	public void scheduledSnapshots() {
+		takeSnapshots()
+				.onErrorResume(e -> {
+					System.err.println("Error generando snapshots de stock: " + e.getMessage());
+					return Mono.empty();
+				})
+				.subscribe();
+	}
+
+	/**
+	 * Los items anteriores al libro no tienen movimientos que expliquen su saldo: al arrancar se les toma
+	 * un snapshot inicial con el saldo actual para que balanceAsOf no los calcule desde cero.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void initialSnapshots() {
+		LocalDateTime takenAt = LocalDateTime.now();
+
+		Flux<StockSnapshot> ingredients = currentBalances(Ingredient.class)
+				.filterWhen(item -> hasNoSnapshot(StockItemType.INGREDIENT, item.id()), 8)
+				.flatMap(item -> snapshotOf(StockItemType.INGREDIENT, item.id(), item.stock(), takenAt), 8);
+		Flux<StockSnapshot> products = currentBalances(Product.class)
+				.filterWhen(item -> hasNoSnapshot(StockItemType.PRODUCT, item.id()), 8)
+				.flatMap(item -> snapshotOf(StockItemType.PRODUCT, item.id(), item.stock(), takenAt), 8);
+
+		snapshotRepo.saveAll(Flux.concat(ingredients, products))
+				.onErrorResume(e -> {
+					System.err.println("Error generando snapshots iniciales de stock: " + e.getMessage());
+					return Mono.empty();
+				})
+				.subscribe();
+	}
+
+	/**
+	 * Termina de aplicar los movimientos que quedaron pendientes por una falla y limpia las marcas
+	 * de los que ya se aplicaron. Solo toma movimientos con más de un minuto, para no competir con
+	 * un registro que todavía está en curso.
+	 */
+	@Scheduled(fixedDelayString = "${stock.reconcile.delay-ms:300000}")
+	public void scheduledReconcile() {
+		reconcile()
+				.onErrorResume(e -> {
+					System.err.println("Error reconciliando movimientos de stock: " + e.getMessage());
+					return Mono.empty();
+				})
+				.subscribe();
+	}
+
+	public Mono<Long> reconcile() {
+		Query pending = Query.query(Criteria.where("applied").is(false)
+				.and("occurredAt").lt(LocalDateTime.now().minusMinutes(1)));
+
+		Mono<Long> applied = mongoTemplate.find(pending, StockMovement.class)
+				.buffer(RECONCILE_BATCH)
+				.concatMap(batch -> applyAll(batch).thenReturn((long) batch.size()))
+				.reduce(0L, Long::sum);
+
+		return applied.flatMap(count -> Mono.when(
+						clearAppliedMarkers(Ingredient.class),
+						clearAppliedMarkers(Product.class))
+				.thenReturn(count));
+	}
+
+	public Mono<Long> takeSnapshots() {
+		LocalDateTime takenAt = LocalDateTime.now();
+
+		Flux<StockSnapshot> ingredients = currentBalances(Ingredient.class)
+				.flatMap(item -> snapshotOf(StockItemType.INGREDIENT, item.id(), item.stock(), takenAt), 8);
+		Flux<StockSnapshot> products = currentBalances(Product.class)
+				.flatMap(item -> snapshotOf(StockItemType.PRODUCT, item.id(), item.stock(), takenAt), 8);
+
+		return snapshotRepo.saveAll(Flux.concat(ingredients, products)).count();
+	}
+
+	// ? Metodos locales
+
+	private record ItemBalance(String id, BigDecimal stock) {}
+
+	private StockMovement movement(StockItemType itemType, String itemId, BigDecimal quantity,
+	                               String reason, String referenceId, LocalDateTime occurredAt) {
+		StockMovement movement = new StockMovement();
+		movement.setItemType(itemType);
+		movement.setItemId(itemId);
+		movement.setQuantity(quantity);
+		movement.setReason(reason);
+		movement.setReferenceId(referenceId);
+		movement.setOccurredAt(occurredAt);
+		return movement;
+	}
+
+	private Class<?> itemClassOf(StockItemType itemType) {
+		return itemType == StockItemType.PRODUCT ? Product.class : Ingredient.class;
+	}
+
+	// Los movimientos del lote guardados y todavía sin aplicar (pueden venir de un intento anterior), en una sola consulta
+	private Flux<StockMovement> findPending(List<StockMovement> movements) {
+		Set<String> keys = movements.stream().map(StockLedgerService::keyOf).collect(Collectors.toSet());
+		Query pending = Query.query(Criteria.where("reason").in(movements.stream().map(StockMovement::getReason).collect(Collectors.toSet()))
+				.and("referenceId").in(movements.stream().map(StockMovement::getReferenceId).collect(Collectors.toSet()))
+				.and("applied").is(false));
+
+		return mongoTemplate.find(pending, StockMovement.class)
+				.filter(saved -> keys.contains(keyOf(saved)));
+	}
+
+	/**
+	 * Aplica un lote de movimientos en tres pasos que se pueden repetir sin duplicar el saldo:
+	 * 1. Por colección de items, un bulk con un $inc por movimiento, condicionado a que el item no tenga
+	 *    la marca del movimiento y dejando la marca en la misma operación.
+	 * 2. Un updateMulti que pasa los movimientos a aplicados.
+	 * 3. Por colección de items, un updateMulti que quita las marcas.
+	 * Se incrementa version y updatedAt: un save con el documento anterior falla y el ETag cambia.
+	 */
+	private Mono<Void> applyAll(List<StockMovement> movements) {
+		if (movements.isEmpty()) {
+			return Mono.empty();
+		}
+
+		LocalDateTime now = LocalDateTime.now();
+		Map<Class<?>, List<StockMovement>> byItemClass = movements.stream()
+				.collect(Collectors.groupingBy(movement -> itemClassOf(movement.getItemType())));
+
+		Mono<Void> balances = Flux.fromIterable(byItemClass.entrySet())
+				.flatMap(entry -> {
+					ReactiveBulkOperations itemOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entry.getKey());
+					for (StockMovement movement : entry.getValue()) {
+						itemOps.updateOne(Query.query(Criteria.where("_id").is(movement.getItemId())
+										.and("pendingMovements").ne(movement.getId())),
+								new Update()
+										.inc("stock", new Decimal128(movement.getQuantity()))
+										.inc("version", 1)
+										.set("updatedAt", now)
+										.addToSet("pendingMovements", movement.getId()));
+					}
+					return itemOps.execute();
+				})
+				.then();
+
+		Mono<Void> markApplied = mongoTemplate.updateMulti(
+						Query.query(Criteria.where("_id").in(movements.stream().map(StockMovement::getId).toList())),
+						Update.update("applied", true), StockMovement.class)
+				.then();
+
+		Mono<Void> clearMarkers = Flux.fromIterable(byItemClass.entrySet())
+				.flatMap(entry -> mongoTemplate.updateMulti(
+						Query.query(Criteria.where("_id").in(entry.getValue().stream().map(StockMovement::getItemId).collect(Collectors.toSet()))),
+						new Update().pullAll("pendingMovements", entry.getValue().stream().map(StockMovement::getId).toArray()),
+						entry.getKey()))
+				.then();
+
+		return balances.then(markApplied).then(clearMarkers);
+	}
+
+	private static String keyOf(StockMovement movement) {
+		return movement.getReason() + "|" + movement.getReferenceId() + "|" + movement.getItemType() + "|" + movement.getItemId();
+	}
+
+	// Solo se toleran los duplicados del índice único por referencia; cualquier otro error del bulk se propaga
+	private static boolean onlyDuplicates(Throwable error) {
+		if (error instanceof DuplicateKeyException) {
+			return true;
+		}
+		return error instanceof BulkOperationException bulkError
+				&& bulkError.getErrors().stream().allMatch(writeError -> writeError.getCode() == DUPLICATE_KEY);
+	}
+
+	// Stock actual menos lo que el libro ya le sumó: lo que el item tenía antes de su primer movimiento
+	private Mono<BigDecimal> openingBalance(StockItemType itemType, String itemId) {
+		Class<?> itemClass = itemClassOf(itemType);
+		Query item = Query.query(Criteria.where("_id").is(itemId));
+		item.fields().include("_id").include("stock");
+
+		return mongoTemplate.findOne(item, Document.class, mongoTemplate.getCollectionName(itemClass))
+				.switchIfEmpty(MonoEx.monoError(HttpStatus.NOT_FOUND, "No se encontró el item con ID: " + itemId))
+				.map(StockLedgerService::toItemBalance)
+				.zipWith(sumOf(movementRepo.sumAppliedQuantity(itemType.name(), itemId)))
+				.map(tuple -> tuple.getT1().stock().subtract(tuple.getT2()));
+	}
+
+	private static Mono<BigDecimal> sumOf(Mono<Decimal128> total) {
+		// Sin movimientos la agregación no devuelve nada
+		return total.map(RecipeScaler::toBigDecimal).defaultIfEmpty(BigDecimal.ZERO);
+	}
+
+	// Quita las marcas de movimientos que ya figuran como aplicados (falla entre los pasos 2 y 3 de apply)
+	private Mono<Void> clearAppliedMarkers(Class<?> itemClass) {
+		Query marked = Query.query(Criteria.where("pendingMovements.0").exists(true));
+		marked.fields().include("_id").include("pendingMovements");
+
+		return mongoTemplate.find(marked, Document.class, mongoTemplate.getCollectionName(itemClass))
+				.concatMap(document -> {
+					List<String> markers = document.getList("pendingMovements", String.class);
+					Query appliedMovements = Query.query(Criteria.where("_id").in(markers).and("applied").ne(false));
+					appliedMovements.fields().include("_id");
+
+					return mongoTemplate.find(appliedMovements, StockMovement.class)
+							.map(StockMovement::getId)
+							.collectList()
+							.filter(applied -> !applied.isEmpty())
+							.flatMap(applied -> mongoTemplate.updateFirst(
+									Query.query(Criteria.where("_id").is(document.get("_id"))),
+									new Update().pullAll("pendingMovements", applied.toArray()), itemClass));
+				})
+				.then();
+	}
+
+	private Mono<Boolean> hasNoSnapshot(StockItemType itemType, String itemId) {
+		return snapshotRepo.findFirstByItemTypeAndItemIdOrderByTakenAtDesc(itemType, itemId)
+				.hasElement()
+				.map(found -> !found);
+	}
+
+	private Flux<ItemBalance> currentBalances(Class<?> itemClass) {
+		Query query = new Query();
+		query.fields().include("_id").include("stock");
+
+		return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(itemClass))
+				.map(StockLedgerService::toItemBalance);
+	}
+
+	private static ItemBalance toItemBalance(Document document) {
+		return new ItemBalance(document.get("_id").toString(),
+				document.get("stock") instanceof Number stock ? RecipeScaler.toBigDecimal(stock) : BigDecimal.ZERO);
+	}
+
+	private Mono<StockSnapshot> snapshotOf(StockItemType itemType, String itemId, BigDecimal currentStock, LocalDateTime takenAt) {
+		return snapshotRepo.findFirstByItemTypeAndItemIdOrderByTakenAtDesc(itemType, itemId)
+				.flatMap(previous -> sumOf(movementRepo.sumQuantityBetween(itemType.name(), itemId, previous.getTakenAt(), takenAt))
+						.map(moved -> previous.getBalance().add(moved)))
+				.defaultIfEmpty(currentStock)
+				.map(balance -> {
+					StockSnapshot snapshot = new StockSnapshot();
+					snapshot.setItemType(itemType);
+					snapshot.setItemId(itemId);
+					snapshot.setBalance(balance);
+					snapshot.setTakenAt(takenAt);
+					return snapshot;
+				});
+	}
+}
@@ -0,0 +1,32 @@
+package com.taup.alimentos_mascotas.Services.Admins.Management;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Uploader local para desarrollo y pruebas (images.uploader=stub): guarda las imágenes en un directorio
+ * y devuelve una URL file:. Permite probar el pipeline de subida sin credenciales ni red.
+ */
+@Component
+@ConditionalOnProperty(name = "images.uploader", havingValue = "stub")
+public class StubImageUploader implements ImageUploader {
+
+    private final Path directory;
+
+    public StubImageUploader(@Value("${images.stub.directory:${java.io.tmpdir}/barker-images}") String directory) {
+        this.directory = Path.of(directory);
+    }
+
+    @Override
+    public String upload(byte[] image, String publicId) throws IOException {
+        Files.createDirectories(directory);
+        Path target = directory.resolve(publicId.replaceAll("[^A-Za-z0-9._-]", "_"));
+        Files.write(target, image);
+        return target.toUri().toString();
+    }
+}
@@ -2,30 +2,52 @@ package com.taup.alimentos_mascotas.Services.Admins.Management;
 
 
 import com.taup.alimentos_mascotas.DTO.PagedResponse;
+import com.taup.alimentos_mascotas.DTO.WorkOrderPlanDTO;
+import com.taup.alimentos_mascotas.DTO.WorkOrderPlanItemDTO;
+import com.taup.alimentos_mascotas.DTO.WorkOrderPlanRequestDTO;
+import com.taup.alimentos_mascotas.DTO.WorkOrderRowDTO;
 import com.taup.alimentos_mascotas.Exceptions.MonoEx;
 import com.taup.alimentos_mascotas.Models.Admins.Management.BuyOrder;
 import com.taup.alimentos_mascotas.Models.Admins.Management.Product;
 import com.taup.alimentos_mascotas.Models.Admins.Management.Recipe;
 import com.taup.alimentos_mascotas.Models.Admins.Management.WorkOrder;
-import com.taup.alimentos_mascotas.Repositories.Admins.Management.IngredientRepository;
 import com.taup.alimentos_mascotas.Repositories.Admins.Management.ProductRepository;
 import com.taup.alimentos_mascotas.Repositories.Admins.Management.RecipeRepository;
 import com.taup.alimentos_mascotas.Repositories.Admins.Management.WorkOrderRepository;
+import com.taup.alimentos_mascotas.Services.Common.CountCacheService;
+import com.taup.alimentos_mascotas.Services.Common.PagingService;
+import com.taup.alimentos_mascotas.Utils.OptimisticRetry;
 import com.taup.alimentos_mascotas.Utils.OrderStatus;
 import com.taup.alimentos_mascotas.Utils.Priority;
+import com.taup.alimentos_mascotas.Utils.RecipeScaler;
+import com.taup.alimentos_mascotas.Utils.SearchText;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
@@ -34,20 +56,52 @@ public class WorkOrderService {
 	private final WorkOrderRepository workOrderRepo;
 	private final ProductRepository productRepo;
 	private final RecipeRepository recipeRepo;
-	private final IngredientRepository ingredientRepo;
+	private final IngredientPriceService ingredientPriceService;
+	private final StockLedgerService stockLedgerService;
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final PagingService pagingService;
+	private final CountCacheService countCache;
 
-	@Transactional(readOnly = true)
-	public Mono<PagedResponse<WorkOrder>> listAllPaged(int page, int size, String keyword) {
-		PageRequest pageRequest = PageRequest.of(page, size);
+	// Campos por los que se puede ordenar el listado, todos respaldados por un índice compuesto
+	private static final Set<String> SORTABLE_FIELDS = Set.of("createdAt", "priority", "status");
+
+	// La prioridad se ordena por su rango numérico (urgencia) y no por el nombre del enum
+	private static final Map<String, String> SORT_COLUMNS = Map.of("priority", "priorityRank");
 
-		if(keyword != null && !keyword.isEmpty()){
-			return getWorkOrdersByKeyword(pageRequest, keyword);
+	@Transactional(readOnly = true)
+	public Mono<PagedResponse<WorkOrder>> listAllPaged(int page, int size, String keyword, String sortBy, String direction,
+	                                                 boolean withTotal) {
+		if (!SORTABLE_FIELDS.contains(sortBy)) {
+			return MonoEx.monoError(HttpStatus.BAD_REQUEST, "No se puede ordenar por '" + sortBy + "'. Opciones: createdAt, priority, status");
 		}
 
-		return getAllWorkOrdersPaged(pageRequest);
+		Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.DESC);
+		PageRequest pageRequest = PageRequest.of(page, size, buildSort(sortBy, sortDirection));
+
+		return keywordCriteria(keyword)
+				.map(Optional::of)
+				.defaultIfEmpty(Optional.empty())
+				.flatMap(filter -> pagingService.findPage(WorkOrder.class, filter.orElse(null), keyword, pageRequest, withTotal));
 	}
 
 
+	@Transactional(readOnly = true)
+	public Mono<PagedResponse<WorkOrderRowDTO>> listRows(int page, int size, String keyword, String sortBy, String direction,
+	                                                     String fields, boolean withTotal) {
+		if (!SORTABLE_FIELDS.contains(sortBy)) {
+			return MonoEx.monoError(HttpStatus.BAD_REQUEST, "No se puede ordenar por '" + sortBy + "'. Opciones: createdAt, priority, status");
+		}
+
+		Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.DESC);
+		PageRequest pageRequest = PageRequest.of(page, size, buildSort(sortBy, sortDirection));
+
+		return keywordCriteria(keyword)
+				.map(Optional::of)
+				.defaultIfEmpty(Optional.empty())
+				.flatMap(filter -> pagingService.findRows(WorkOrder.class, WorkOrderRowDTO.class, filter.orElse(null), keyword,
+						fields, pageRequest, withTotal));
+	}
+
 	@Transactional(readOnly = true)
 	public Flux<WorkOrder> findAll (){
 		return workOrderRepo.findAll();
@@ -68,7 +122,7 @@ public class WorkOrderService {
 						.switchIfEmpty(MonoEx.monoError(HttpStatus.NOT_FOUND, "Receta no encontrada para el producto con ID: " + product.getId()))
 						.flatMap(recipe -> {
 
-							Map<String, Number> estimatedIngredients = calculateEstimatedIngredients(recipe, new BigDecimal(workOrder.getQuantityToDo().toString()));
+							Map<String, Number> estimatedIngredients = calculateEstimatedIngredients(recipe, workOrder.getQuantityToDo());
 
 							workOrder.setEstimatedIngredients(estimatedIngredients);
 
@@ -77,10 +131,71 @@ public class WorkOrderService {
 										workOrder.setEstimatedCost(estimatedCost);
 										return workOrderRepo.save(workOrder);
 									});
-						}));
+						}))
+				.onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
 	}
 
 
+	/**
+	 * Crea varias órdenes de trabajo a partir de un plan de producción (producto + cantidad).
+	 * Productos, recetas y precios se resuelven con una consulta cada uno y las órdenes se insertan juntas.
+	 */
+	@Transactional
+	public Mono<WorkOrderPlanDTO> planWorkOrders(WorkOrderPlanRequestDTO plan, String username) {
+		if (plan == null || plan.getItems() == null || plan.getItems().isEmpty()) {
+			return MonoEx.monoError(HttpStatus.BAD_REQUEST, "El plan no tiene productos a producir.");
+		}
+		for (WorkOrderPlanItemDTO item : plan.getItems()) {
+			if (item.getProductId() == null || item.getProductId().isBlank()) {
+				return MonoEx.monoError(HttpStatus.BAD_REQUEST, "Todos los items del plan deben tener un ID de producto.");
+			}
+			if (item.getQuantity() == null || item.getQuantity().doubleValue() <= 0) {
+				return MonoEx.monoError(HttpStatus.BAD_REQUEST, "La cantidad a producir debe ser mayor a 0 para el producto con ID: " + item.getProductId());
+			}
+		}
+
+		Set<String> productIds = plan.getItems().stream()
+				.map(WorkOrderPlanItemDTO::getProductId)
+				.collect(Collectors.toSet());
+
+		return productRepo.findAllById(productIds)
+				.collectMap(Product::getId)
+				.flatMap(products -> {
+					Set<String> missingProducts = new HashSet<>(productIds);
+					missingProducts.removeAll(products.keySet());
+					if (!missingProducts.isEmpty()) {
+						return MonoEx.monoError(HttpStatus.NOT_FOUND, "Productos no encontrados con ID: " + missingProducts);
+					}
+
+					Set<String> recipeIds = new HashSet<>();
+					for (Product product : products.values()) {
+						if (product.getRecipeId() == null) {
+							return MonoEx.monoError(HttpStatus.BAD_REQUEST, "El producto con ID " + product.getId() + " no tiene receta asignada.");
+						}
+						recipeIds.add(product.getRecipeId());
+					}
+
+					return recipeRepo.findAllById(recipeIds)
+							.collectMap(Recipe::getId)
+							.flatMap(recipes -> {
+								Set<String> missingRecipes = new HashSet<>(recipeIds);
+								missingRecipes.removeAll(recipes.keySet());
+								if (!missingRecipes.isEmpty()) {
+									return MonoEx.monoError(HttpStatus.NOT_FOUND, "Recetas no encontradas con ID: " + missingRecipes);
+								}
+
+								List<WorkOrder> workOrders = new ArrayList<>();
+								for (WorkOrderPlanItemDTO item : plan.getItems()) {
+									Recipe recipe = recipes.get(products.get(item.getProductId()).getRecipeId());
+									workOrders.add(buildPlannedWorkOrder(item, recipe, username));
+								}
+
+								return priceAndSavePlan(workOrders);
+							});
+				})
+				.onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+	}
+
 	@Transactional
 	public Mono<WorkOrder> update(WorkOrder workOrder, String workOrderId, String username) {
 		if (!workOrder.getId().equals(workOrderId)) {
@@ -91,18 +206,16 @@ public class WorkOrderService {
 		return workOrderRepo.findById(workOrderId)
 				.switchIfEmpty(MonoEx.monoError(HttpStatus.NOT_FOUND, "No se encontró la orden de trabajo con ID: " + workOrderId))
 				.flatMap(existingWorkOrder -> {
-					WorkOrder updatedWorkOrder = mappingWorkOrderToUpdate(existingWorkOrder, workOrder, username);
-
-					if (!updatedWorkOrder.getEstimatedIngredients().equals(existingWorkOrder.getEstimatedIngredients())) {
-						return calculateEstimatedCost(updatedWorkOrder.getEstimatedIngredients())
-								.flatMap(estimatedCost -> {
-									updatedWorkOrder.setEstimatedCost(estimatedCost);
-									return workOrderRepo.save(updatedWorkOrder);
-								});
-					} else {
-						return workOrderRepo.save(updatedWorkOrder);
+					Update update = mappingWorkOrderToUpdate(workOrder, username);
+
+					// El costo estimado solo se recalcula si cambiaron los ingredientes estimados
+					if (!Objects.equals(workOrder.getEstimatedIngredients(), existingWorkOrder.getEstimatedIngredients())) {
+						return calculateEstimatedCost(workOrder.getEstimatedIngredients())
+								.flatMap(estimatedCost -> updateIfVersion(existingWorkOrder, update.set("estimatedCost", estimatedCost)));
 					}
-				});
+					return updateIfVersion(existingWorkOrder, update);
+				})
+				.retryWhen(OptimisticRetry.onConflict());
 	}
 
 	@Transactional
@@ -123,7 +236,10 @@ public class WorkOrderService {
 					previousWorkOrder.setCompletedAt(finishingDate);
 					previousWorkOrder.setCompletedQuantity(completedWorkOrder.getCompletedQuantity());
 
-					return calculateRealCost(completedWorkOrder.getUsedIngredients())
+					// El libro se registra antes de marcar la orden como completada: si algo falla después,
+					// la orden sigue abierta y al reintentar el registro no duplica movimientos ni saldos
+					return stockLedgerService.recordWorkOrderCompletion(previousWorkOrder)
+							.then(calculateRealCost(completedWorkOrder.getUsedIngredients()))
 							.flatMap(realCost -> {
 								previousWorkOrder.setRealCost(realCost);
 
@@ -135,7 +251,8 @@ public class WorkOrderService {
 
 								return workOrderRepo.save(previousWorkOrder);
 							});
-				});
+				})
+				.retryWhen(OptimisticRetry.onConflict());
 	}
 
 
@@ -214,109 +331,163 @@ public class WorkOrderService {
 	// 			});
 	// }
 
-	private Map<String, Number> calculateEstimatedIngredients(Recipe recipe, BigDecimal quantityToProduce) {
-		Map<String, Number> estimatedIngredients = new HashMap<>();
-
-		BigDecimal servings =  parseBigDecimal(recipe.getEstimatedServings());
+	private Map<String, Number> calculateEstimatedIngredients(Recipe recipe, Number quantityToProduce) {
+		return RecipeScaler.scale(recipe.getIngredientsWithQuantity(), quantityToProduce, recipe.getEstimatedServings());
+	}
 
-		for (Map.Entry<String, Number> entry : recipe.getIngredientsWithQuantity().entrySet()) {
-			String ingredientId = entry.getKey();
+	private WorkOrder buildPlannedWorkOrder(WorkOrderPlanItemDTO item, Recipe recipe, String username) {
+		WorkOrder workOrder = new WorkOrder();
+		workOrder.setProductId(item.getProductId());
+		workOrder.setRecipeId(recipe.getId());
+		workOrder.setQuantityToDo(item.getQuantity());
+		workOrder.setPriority(item.getPriority());
+		workOrder.setNotes(item.getNotes());
+		workOrder.setStatus(OrderStatus.PENDING);
+		workOrder.setEstimatedIngredients(calculateEstimatedIngredients(recipe, item.getQuantity()));
+		workOrder.setCreatedAt(LocalDateTime.now());
+		workOrder.setCreatedBy(username);
 
+		return workOrder;
+	}
 
-			BigDecimal quantityForUnit = parseBigDecimal(entry.getValue());
+	private Mono<WorkOrderPlanDTO> priceAndSavePlan(List<WorkOrder> workOrders) {
+		// Lista de materiales consolidada de todo el plan
+		Map<String, BigDecimal> requirements = new HashMap<>();
+		for (WorkOrder workOrder : workOrders) {
+			workOrder.getEstimatedIngredients().forEach((ingredientId, quantity) ->
+					requirements.merge(ingredientId, RecipeScaler.toBigDecimal(quantity), BigDecimal::add));
+		}
 
-			BigDecimal estimatedQuantity = quantityForUnit.multiply(quantityToProduce.divide(servings));
+		return ingredientPriceService.costsOf(workOrders.stream().map(WorkOrder::getEstimatedIngredients).toList())
+				.flatMap(estimatedCosts -> {
+					BigDecimal totalEstimatedCost = BigDecimal.ZERO;
+					for (int i = 0; i < workOrders.size(); i++) {
+						workOrders.get(i).setEstimatedCost(estimatedCosts.get(i));
+						totalEstimatedCost = totalEstimatedCost.add(estimatedCosts.get(i));
+					}
 
-			estimatedIngredients.put(ingredientId, estimatedQuantity);
-		}
-		return estimatedIngredients;
+					BigDecimal total = totalEstimatedCost;
+					return workOrderRepo.saveAll(workOrders)
+							.collectList()
+							.map(saved -> new WorkOrderPlanDTO(saved, new HashMap<>(requirements), total));
+				});
 	}
 
 	private Mono<BigDecimal> calculateEstimatedCost(Map<String, Number> estimatedIngredients) {
-		return Flux.fromIterable(estimatedIngredients.entrySet())
-				.flatMap(entry -> {
-					String ingredientId = entry.getKey();
-					double estimatedQuantity = entry.getValue().doubleValue();
-					return ingredientRepo.findById(ingredientId)
-							.map(ingredient -> ingredient.getPrice().multiply(BigDecimal.valueOf(estimatedQuantity)));
-				})
-				.reduce(BigDecimal.ZERO, BigDecimal::add);
+		return ingredientPriceService.costOf(estimatedIngredients);
 	}
 
 	private Mono<BigDecimal> calculateRealCost(Map<String, Number> usedIngredients) {
-		return Flux.fromIterable(usedIngredients.entrySet())
-				.flatMap(entry -> {
-					String ingredientId = entry.getKey();
-					double quantity = entry.getValue().doubleValue();
-					return ingredientRepo.findById(ingredientId)
-							.map(ingredient -> ingredient.getPrice().multiply(BigDecimal.valueOf(quantity)));
-				})
-				.reduce(BigDecimal.ZERO, BigDecimal::add);
+		return ingredientPriceService.costOf(usedIngredients);
 	}
 
 	private Map<String, Number> calculateIngredientDifferences(
 			Map<String, Number> estimatedIngredients,
 			Map<String, Number> usedIngredients) {
-		Map<String, Number> differences = new HashMap<>();
+		return RecipeScaler.differences(estimatedIngredients, usedIngredients);
+	}
 
-		for (Map.Entry<String, Number> entry : estimatedIngredients.entrySet()) {
-			String ingredientId = entry.getKey();
-			BigDecimal estimatedQuantity = parseBigDecimal(entry.getValue());
-			BigDecimal usedQuantity = parseBigDecimal(usedIngredients.getOrDefault(ingredientId, 0));
+	private Update mappingWorkOrderToUpdate(WorkOrder workOrder, String username) {
+		Update update = new Update();
+		setOrUnset(update, "productId", workOrder.getProductId());
+		setOrUnset(update, "quantityToDo", workOrder.getQuantityToDo());
+		setOrUnset(update, "estimatedIngredients", workOrder.getEstimatedIngredients());
+		setOrUnset(update, "usedIngredients", workOrder.getUsedIngredients());
+		setOrUnset(update, "ingredientDifferences", workOrder.getIngredientDifferences());
+		setOrUnset(update, "status", workOrder.getStatus());
+		setOrUnset(update, "completedAt", workOrder.getCompletedAt());
+		setOrUnset(update, "notes", workOrder.getNotes());
+		setOrUnset(update, "realCost", workOrder.getRealCost());
+		setOrUnset(update, "completedQuantity", workOrder.getCompletedQuantity());
+		setOrUnset(update, "priority", workOrder.getPriority());
+		setOrUnset(update, "priorityRank", workOrder.getPriorityRank());
+
+		return update.set("updatedAt", LocalDateTime.now())
+				.set("modifiedBy", username);
+	}
 
-			BigDecimal difference = usedQuantity.subtract(estimatedQuantity);
-			differences.put(ingredientId, difference);
+	// Igual que un save, que no persiste los campos nulos
+	private static void setOrUnset(Update update, String field, Object value) {
+		if (value == null) {
+			update.unset(field);
+		} else {
+			update.set(field, value);
 		}
-
-		return differences;
 	}
 
-	private BigDecimal parseBigDecimal(Number entry){
-		return new BigDecimal(entry.toString());
+	/**
+	 * Aplica el update solo si la orden sigue en la versión leída; si otro cambio ganó la carrera
+	 * emite OptimisticLockingFailureException para que el llamador reintente desde la lectura.
+	 */
+	private Mono<WorkOrder> updateIfVersion(WorkOrder existingWorkOrder, Update update) {
+		Query query = Query.query(Criteria.where("_id").is(existingWorkOrder.getId())
+				.and("version").is(existingWorkOrder.getVersion()));
+
+		return mongoTemplate.findAndModify(query, update.inc("version", 1),
+						FindAndModifyOptions.options().returnNew(true), WorkOrder.class)
+				.switchIfEmpty(Mono.error(() -> OptimisticRetry.conflict(WorkOrder.class, existingWorkOrder.getId())))
+				// findAndModify no publica AfterSaveEvent: los totales por estado o prioridad quedarían viejos
+				.doOnNext(updated -> countCache.invalidate(WorkOrder.class));
 	}
 
-	private WorkOrder mappingWorkOrderToUpdate(WorkOrder existingWorkOrder, WorkOrder workOrder, String username) {
-		existingWorkOrder.setProductId(workOrder.getProductId());
-		existingWorkOrder.setQuantityToDo(workOrder.getQuantityToDo());
-		existingWorkOrder.setEstimatedIngredients(workOrder.getEstimatedIngredients());
-		existingWorkOrder.setUsedIngredients(workOrder.getUsedIngredients());
-		existingWorkOrder.setIngredientDifferences(workOrder.getIngredientDifferences());
-		existingWorkOrder.setStatus(workOrder.getStatus());
-		existingWorkOrder.setCompletedAt(workOrder.getCompletedAt());
-		existingWorkOrder.setNotes(workOrder.getNotes());
-		existingWorkOrder.setRealCost(workOrder.getRealCost());
-		existingWorkOrder.setCompletedQuantity(workOrder.getCompletedQuantity());
-		existingWorkOrder.setPriority(workOrder.getPriority());
-		existingWorkOrder.setUpdatedAt(LocalDateTime.now());
-		existingWorkOrder.setModifiedBy(username);
-
-		return existingWorkOrder;
+	/**
+	 * Coincide por estado, prioridad o nombre del producto sin pasar el texto del usuario a una regex:
+	 * los estados y prioridades se resuelven en memoria contra el enum (nombre o descripción) y se buscan por igualdad,
+	 * y los productos salen del índice de prefijos de búsqueda (searchPrefixes) con una consulta proyectada.
+	 */
+	private Mono<Criteria> keywordCriteria(String keyword) {
+		if (keyword == null || keyword.isBlank()) {
+			return Mono.empty();
+		}
+
+		String folded = SearchText.fold(keyword.trim());
+		List<Criteria> enumMatches = new ArrayList<>();
+		List<OrderStatus> statuses = Arrays.stream(OrderStatus.values())
+				.filter(status -> containsFolded(folded, status.name(), status.getDescription()))
+				.toList();
+		if (!statuses.isEmpty()) {
+			enumMatches.add(Criteria.where("status").in(statuses));
+		}
+		List<Priority> priorities = Arrays.stream(Priority.values())
+				.filter(priority -> containsFolded(folded, priority.name(), priority.getDescription()))
+				.toList();
+		if (!priorities.isEmpty()) {
+			enumMatches.add(Criteria.where("priority").in(priorities));
+		}
+
+		List<String> terms = SearchText.tokens(keyword);
+		Mono<List<String>> productIds = Mono.just(List.of());
+		if (!terms.isEmpty()) {
+			Query productsByName = Query.query(Criteria.where("searchPrefixes").all(terms));
+			productsByName.fields().include("_id");
+			productIds = mongoTemplate.find(productsByName, Product.class)
+					.map(Product::getId)
+					.collectList();
+		}
+
+		return productIds.map(ids -> {
+			List<Criteria> matches = new ArrayList<>(enumMatches);
+			if (!ids.isEmpty()) {
+				matches.add(Criteria.where("productId").in(ids));
+			}
+			// Sin ninguna coincidencia el listado tiene que salir vacío, no completo
+			return matches.isEmpty()
+					? Criteria.where("_id").in(List.of())
+					: new Criteria().orOperator(matches);
+		});
 	}
 
-	private Mono<PagedResponse<WorkOrder>> getWorkOrdersByKeyword(PageRequest pageRequest, String keyword) {
-		Mono<Long> totalElements = workOrderRepo.countByKeyword(keyword);
-		Flux<WorkOrder> workOrderFlux = workOrderRepo.findByKeyword(keyword, pageRequest);
-
-		return Mono.zip(totalElements, workOrderFlux.collectList())
-				.map(tuple -> new PagedResponse<>(
-						tuple.getT2(),
-						tuple.getT1(),
-						pageRequest.getPageNumber(),
-						pageRequest.getPageSize()
-				));
+	private static boolean containsFolded(String foldedKeyword, String... values) {
+		return Arrays.stream(values).anyMatch(value -> SearchText.fold(value).contains(foldedKeyword));
 	}
 
-	private Mono<PagedResponse<WorkOrder>> getAllWorkOrdersPaged(PageRequest pageRequest) {
-		Mono<Long> totalElements = workOrderRepo.count();
-		Flux<WorkOrder> workOrderFlux = workOrderRepo.findWorkOrdersPaged();
-
-		return Mono.zip(totalElements, workOrderFlux.collectList())
-				.map(tuple -> new PagedResponse<>(
-						tuple.getT2(),
-						tuple.getT1(),
-						pageRequest.getPageNumber(),
-						pageRequest.getPageSize()
-				));
+	private Sort buildSort(String sortBy, Sort.Direction direction) {
+		// createdAt y _id desempatan en la misma dirección para que el orden coincida con el índice y sea estable
+		Sort sort = Sort.by(direction, SORT_COLUMNS.getOrDefault(sortBy, sortBy));
+		if (!"createdAt".equals(sortBy)) {
+			sort = sort.and(Sort.by(direction, "createdAt"));
+		}
+		return sort.and(Sort.by(direction, "_id"));
 	}
 
 }
@@ -0,0 +1,115 @@
+package com.taup.alimentos_mascotas.Services.Common;
+
+import com.taup.alimentos_mascotas.Utils.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache de corta duración para los totales de los listados paginados.
+ * La clave es colección + filtro, y cualquier alta, modificación o baja de la colección la invalida.
+ * Los eventos de Spring Data solo cubren save y delete: quien escriba con findAndModify, updateMulti o bulkOps
+ * debe llamar a invalidate explícitamente.
+ * Cada colección lleva además una generación que sube en cada invalidación; un total contado antes
+ * de una invalidación no se guarda, aunque termine después de ella.
+ */
+@Service
+public class CountCacheService {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final TtlCache<String, Long> counts;
+	private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+	public CountCacheService(ReactiveMongoTemplate mongoTemplate,
+	                         @Value("${paging.count-cache.ttl-seconds:30}") long ttlSeconds,
+	                         @Value("${paging.count-cache.max-entries:1000}") int maxEntries) {
+		this.mongoTemplate = mongoTemplate;
+		this.counts = new TtlCache<>(Duration.ofSeconds(ttlSeconds), maxEntries);
+	}
+
+	public Mono<Long> count(Class<?> type, String filterKey, Supplier<Mono<Long>> counter) {
+		String collection = mongoTemplate.getCollectionName(type);
+		String key = keyOf(collection, filterKey);
+
+		return Mono.defer(() -> {
+			Long cached = counts.get(key);
+			if (cached != null) {
+				return Mono.just(cached);
+			}
+			long generation = generationOf(collection).get();
+			return counter.get().doOnNext(total -> putIfCurrent(collection, key, total, generation));
+		});
+	}
+
+	/**
+	 * Total ya cacheado para el filtro, o null si no está o venció. No dispara ningún conteo.
+	 */
+	public Long cached(Class<?> type, String filterKey) {
+		return counts.get(keyOf(mongoTemplate.getCollectionName(type), filterKey));
+	}
+
+	/**
+	 * Generación actual de la colección; se toma antes de lanzar una consulta cuyo total se guardará con remember.
+	 */
+	public long generation(Class<?> type) {
+		return generationOf(mongoTemplate.getCollectionName(type)).get();
+	}
+
+	/**
+	 * Guarda un total obtenido por otra vía (por ejemplo, junto con la página en un $facet),
+	 * salvo que la colección se haya invalidado desde la generación indicada.
+	 */
+	public void remember(Class<?> type, String filterKey, long total, long generation) {
+		String collection = mongoTemplate.getCollectionName(type);
+		putIfCurrent(collection, keyOf(collection, filterKey), total, generation);
+	}
+
+	public void invalidate(Class<?> type) {
+		invalidate(mongoTemplate.getCollectionName(type));
+	}
+
+	public void invalidate(String collection) {
+		// La generación sube antes de borrar: un put concurrente o ve la generación nueva o es borrado acá
+		generationOf(collection).incrementAndGet();
+		String prefix = collection + "|";
+		counts.invalidateIf(key -> key.startsWith(prefix));
+	}
+
+	@EventListener
+	public void onAfterSave(AfterSaveEvent<?> event) {
+		invalidate(event.getCollectionName());
+	}
+
+	@EventListener
+	public void onAfterDelete(AfterDeleteEvent<?> event) {
+		invalidate(event.getCollectionName());
+	}
+
+	// ? Metodos locales
+
+	private void putIfCurrent(String collection, String key, long total, long generation) {
+		counts.put(key, total);
+		// Si hubo una invalidación mientras se contaba, el total puede estar desactualizado
+		if (generationOf(collection).get() != generation) {
+			counts.invalidate(key);
+		}
+	}
+
+	private AtomicLong generationOf(String collection) {
+		return generations.computeIfAbsent(collection, name -> new AtomicLong());
+	}
+
+	private String keyOf(String collection, String filterKey) {
+		return collection + "|" + (filterKey == null ? "" : filterKey);
+	}
+}
@@ -0,0 +1,163 @@
+package com.taup.alimentos_mascotas.Services.Common;
+
+import com.taup.alimentos_mascotas.Exceptions.MonoEx;
+import com.taup.alimentos_mascotas.Models.Admins.Management.BuyOrder;
+import com.taup.alimentos_mascotas.Models.Admins.Management.Ingredient;
+import com.taup.alimentos_mascotas.Models.Admins.Management.Product;
+import com.taup.alimentos_mascotas.Models.Admins.Management.PurchaseOrder;
+import com.taup.alimentos_mascotas.Models.Admins.Management.Recipe;
+import com.taup.alimentos_mascotas.Models.Admins.Management.WorkOrder;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Exportaciones completas (catálogo, historial de órdenes) que se envían fila por fila a medida que
+ * llegan del cursor de Mongo. Se leen documentos BSON crudos con proyección, sin mapear a la entidad,
+ * y el cursor solo avanza según la demanda del cliente, así que la memoria no depende del tamaño de la colección.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+	// Cantidad de documentos por lote del cursor
+	private static final int CURSOR_BATCH_SIZE = 500;
+
+	private static final Map<String, Class<?>> EXPORTABLE = Map.of(
+			"productos", Product.class,
+			"ingredientes", Ingredient.class,
+			"recetas", Recipe.class,
+			"ventas", BuyOrder.class,
+			"ordenes-compra", PurchaseOrder.class,
+			"ordenes-trabajo", WorkOrder.class
+	);
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final FieldProjection fieldProjection;
+
+	/**
+	 * Una fila por documento, con los campos pedidos en el orden pedido. Pensado para application/x-ndjson.
+	 */
+	public Flux<Map<String, Object>> exportRows(String entity, String fields) {
+		Class<?> type = EXPORTABLE.get(entity);
+		if (type == null) {
+			return unknownEntity(entity);
+		}
+
+		return fieldProjection.resolve(type, fields, null)
+				.flatMapMany(selected -> streamDocuments(type, selected)
+						.map(document -> toRow(type, document, selected)));
+	}
+
+	/**
+	 * Misma exportación en CSV: primero el encabezado y luego una línea por documento.
+	 */
+	public Flux<String> exportCsv(String entity, String fields) {
+		Class<?> type = EXPORTABLE.get(entity);
+		if (type == null) {
+			return unknownEntity(entity);
+		}
+
+		return fieldProjection.resolve(type, fields, null)
+				.flatMapMany(selected -> Flux.concat(
+						Flux.just(csvLine(List.copyOf(selected))),
+						streamDocuments(type, selected)
+								.map(document -> csvLine(List.copyOf(toRow(type, document, selected).values())))));
+	}
+
+	// ? Metodos locales
+
+	private Flux<Document> streamDocuments(Class<?> type, List<String> fields) {
+		Query query = fieldProjection.include(new Query(), type, fields)
+				.with(Sort.by(Sort.Direction.ASC, "_id"))
+				.cursorBatchSize(CURSOR_BATCH_SIZE);
+
+		return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(type));
+	}
+
+	private Map<String, Object> toRow(Class<?> type, Document document, List<String> fields) {
+		Map<String, Object> row = new LinkedHashMap<>();
+		for (String field : fields) {
+			row.put(field, plain(document.get(fieldProjection.fieldName(type, field))));
+		}
+		return row;
+	}
+
+	// Convierte los tipos BSON a valores que Jackson y el CSV representan sin sorpresas
+	private static Object plain(Object value) {
+		if (value instanceof ObjectId objectId) {
+			return objectId.toHexString();
+		}
+		if (value instanceof Decimal128 decimal) {
+			return decimal.bigDecimalValue();
+		}
+		if (value instanceof Date date) {
+			return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime().toString();
+		}
+		if (value instanceof Document document) {
+			Map<String, Object> map = new LinkedHashMap<>();
+			document.forEach((key, nested) -> map.put(key, plain(nested)));
+			return map;
+		}
+		if (value instanceof Collection<?> collection) {
+			return collection.stream().map(ExportService::plain).toList();
+		}
+		return value;
+	}
+
+	private static String csvLine(List<?> values) {
+		return values.stream()
+				.map(ExportService::csvCell)
+				.collect(Collectors.joining(",", "", "\n"));
+	}
+
+	private static String csvCell(Object value) {
+		if (value == null) {
+			return "";
+		}
+
+		String text;
+		if (value instanceof Map<?, ?> map) {
+			text = map.entrySet().stream()
+					.map(entry -> entry.getKey() + "=" + entry.getValue())
+					.collect(Collectors.joining(";"));
+		} else if (value instanceof Collection<?> collection) {
+			text = collection.stream().map(String::valueOf).collect(Collectors.joining(";"));
+		} else {
+			text = value.toString();
+		}
+
+		// Un texto que empieza con = + - @ (o tab/CR) Excel lo ejecuta como fórmula: se neutraliza con ' y va entre comillas.
+		// Los números se dejan como están para que un negativo siga siendo un número
+		boolean formula = !(value instanceof Number) && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0;
+		if (formula) {
+			text = "'" + text;
+		}
+
+		if (formula || text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+			return "\"" + text.replace("\"", "\"\"") + "\"";
+		}
+		return text;
+	}
+
+	private static <T> Flux<T> unknownEntity(String entity) {
+		return MonoEx.<T>monoError(HttpStatus.NOT_FOUND,
+				"No se puede exportar '" + entity + "'. Opciones: " + String.join(", ", EXPORTABLE.keySet()))
+				.flux();
+	}
+}
@@ -0,0 +1,89 @@
+package com.taup.alimentos_mascotas.Services.Common;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.taup.alimentos_mascotas.Exceptions.MonoEx;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Traduce el parámetro "fields=a,b,c" a una proyección de Mongo.
+ * Solo se aceptan propiedades persistidas y visibles en la API (las @JsonIgnore quedan afuera).
+ */
+@Component
+@RequiredArgsConstructor
+public class FieldProjection {
+
+	private final MongoMappingContext mappingContext;
+
+	// Propiedad de la API -> nombre del campo en el documento, en orden de declaración
+	private final Map<Class<?>, Map<String, String>> fieldsByType = new ConcurrentHashMap<>();
+
+	/**
+	 * Campos pedidos, validados. Si no se pide ninguno se usan los defaults (o todos si no hay defaults).
+	 */
+	public Mono<List<String>> resolve(Class<?> type, String fields, List<String> defaults) {
+		Map<String, String> available = fieldsOf(type);
+
+		if (fields == null || fields.isBlank()) {
+			return Mono.just(defaults != null && !defaults.isEmpty() ? defaults : new ArrayList<>(available.keySet()));
+		}
+
+		Set<String> requested = new LinkedHashSet<>();
+		for (String field : Arrays.asList(fields.split(","))) {
+			String name = field.trim();
+			if (name.isEmpty()) {
+				continue;
+			}
+			if (!available.containsKey(name)) {
+				return MonoEx.monoError(HttpStatus.BAD_REQUEST,
+						"El campo '" + name + "' no existe. Opciones: " + String.join(", ", available.keySet()));
+			}
+			requested.add(name);
+		}
+		return Mono.just(new ArrayList<>(requested));
+	}
+
+	/**
+	 * Incluye en la consulta solo los campos indicados; el _id siempre viaja.
+	 */
+	public Query include(Query query, Class<?> type, List<String> fields) {
+		Map<String, String> available = fieldsOf(type);
+		fields.forEach(field -> query.fields().include(available.getOrDefault(field, field)));
+		return query;
+	}
+
+	/**
+	 * Nombre del campo en el documento para una propiedad de la API (por ejemplo id -> _id).
+	 */
+	public String fieldName(Class<?> type, String property) {
+		return fieldsOf(type).getOrDefault(property, property);
+	}
+
+	private Map<String, String> fieldsOf(Class<?> type) {
+		return fieldsByType.computeIfAbsent(type, key -> {
+			MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(key);
+			Map<String, String> fields = new LinkedHashMap<>();
+			for (MongoPersistentProperty property : entity) {
+				if (!property.isAnnotationPresent(JsonIgnore.class)) {
+					fields.put(property.getName(), property.getFieldName());
+				}
+			}
+			return fields;
+		});
+	}
+}
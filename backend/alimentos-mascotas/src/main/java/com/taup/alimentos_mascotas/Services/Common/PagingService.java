@@ -0,0 +1,188 @@
+package com.taup.alimentos_mascotas.Services.Common;
+
+import com.taup.alimentos_mascotas.DTO.PagedResponse;
+import com.taup.alimentos_mascotas.Exceptions.MonoEx;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class PagingService {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final FieldProjection fieldProjection;
+	private final CountCacheService countCache;
+
+	/**
+	 * Página offset con su total en un solo viaje a la base: un $facet sobre el mismo $match devuelve
+	 * el contenido (skip/limit) y el conteo. filterKey identifica el filtro en la caché de conteos.
+	 * Sin orden en pageRequest se mantiene el orden natural, igual que las consultas paginadas del repositorio.
+	 */
+	public <T> Mono<PagedResponse<T>> findPage(Class<T> type, Criteria filter, String filterKey,
+	                                           PageRequest pageRequest, boolean withTotal) {
+		List<AggregationOperation> stages = new ArrayList<>();
+		if (filter != null) {
+			stages.add(Aggregation.match(filter));
+		}
+		if (pageRequest.getSort().isSorted()) {
+			stages.add(Aggregation.sort(pageRequest.getSort()));
+		}
+		return findPage(type, stages, filterKey, pageRequest, withTotal);
+	}
+
+	/**
+	 * Igual que la anterior, con las etapas de filtro y orden armadas por quien llama ($text, que debe ser la primera etapa,
+	 * o un $addFields para ordenar por relevancia). Las etapas no pueden agregar ni quitar documentos más allá del filtro,
+	 * porque el total se cuenta a continuación de ellas.
+	 * Si el total no se pidió o ya está en la caché de conteos, se ejecuta solo la página, sin el $facet.
+	 */
+	public <T> Mono<PagedResponse<T>> findPage(Class<T> type, List<AggregationOperation> stages, String filterKey,
+	                                           PageRequest pageRequest, boolean withTotal) {
+		int page = pageRequest.getPageNumber();
+		int size = pageRequest.getPageSize();
+
+		return Mono.defer(() -> {
+			Long cachedTotal = withTotal ? countCache.cached(type, filterKey) : null;
+			long generation = countCache.generation(type);
+			List<AggregationOperation> pipeline = new ArrayList<>(stages);
+
+			if (!withTotal || cachedTotal != null) {
+				pipeline.add(Aggregation.skip(pageRequest.getOffset()));
+				pipeline.add(Aggregation.limit(size));
+				return mongoTemplate.aggregate(Aggregation.newAggregation(type, pipeline), type)
+						.collectList()
+						.map(content -> new PagedResponse<>(content, cachedTotal, page, size));
+			}
+
+			pipeline.add(Aggregation.facet(
+							Aggregation.skip(pageRequest.getOffset()),
+							Aggregation.limit(size)).as("content")
+					.and(Aggregation.count().as("total")).as("total"));
+
+			return mongoTemplate.aggregate(Aggregation.newAggregation(type, pipeline), Document.class)
+					.next()
+					.map(result -> {
+						List<T> content = result.getList("content", Document.class).stream()
+								.map(document -> mongoTemplate.getConverter().read(type, document))
+								.toList();
+						// Sin coincidencias la rama del conteo viene vacía
+						List<Document> total = result.getList("total", Document.class);
+						long totalElements = total.isEmpty() ? 0L : ((Number) total.get(0).get("total")).longValue();
+						countCache.remember(type, filterKey, totalElements, generation);
+
+						return new PagedResponse<>(content, totalElements, page, size);
+					});
+		});
+	}
+
+	/**
+	 * Página por cursor (keyset) ordenada por _id. Trae los documentos posteriores a "after"
+	 * sin usar skip, por lo que el costo no crece con la profundidad de la página.
+	 * Un "after" vacío devuelve la primera página.
+	 */
+	public <T> Mono<PagedResponse<T>> findPageAfter(Class<T> type, Criteria filter, String after, int size) {
+		if (size < 1) {
+			return MonoEx.monoError(HttpStatus.BAD_REQUEST, "El tamaño de página debe ser mayor a 0.");
+		}
+
+		Query query = new Query();
+		if (filter != null) {
+			query.addCriteria(filter);
+		}
+		if (after != null && !after.isBlank()) {
+			if (!ObjectId.isValid(after)) {
+				return MonoEx.monoError(HttpStatus.BAD_REQUEST, "El cursor 'after' no es válido.");
+			}
+			query.addCriteria(Criteria.where("_id").gt(new ObjectId(after)));
+		}
+		query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(size + 1);
+
+		return mongoTemplate.find(query, type)
+				.collectList()
+				.map(found -> {
+					// Se pide un elemento de más para saber si existe una página siguiente
+					boolean hasNext = found.size() > size;
+					List<T> content = hasNext ? found.subList(0, size) : found;
+					String nextCursor = hasNext ? idOf(type, content.get(content.size() - 1)) : null;
+
+					return new PagedResponse<>(content, null, 0, size, nextCursor);
+				});
+	}
+
+	/**
+	 * Página de filas livianas para las grillas del admin. La consulta proyecta solo las columnas de rowType
+	 * (o las pedidas en "fields", que deben ser columnas de rowType) y Mongo devuelve los documentos ya recortados,
+	 * que se leen directamente como rowType sin pasar por la entidad completa.
+	 * Sin orden explícito se ordena por _id para que las páginas sean estables.
+	 */
+	public <R> Mono<PagedResponse<R>> findRows(Class<?> source, Class<R> rowType, Criteria filter, String filterKey,
+	                                           String fields, PageRequest pageRequest, boolean withTotal) {
+		return fieldProjection.resolve(rowType, fields, null)
+				.flatMap(selected -> {
+					Query query = new Query();
+					if (filter != null) {
+						query.addCriteria(filter);
+					}
+					fieldProjection.include(query, rowType, selected);
+					query.with(pageRequest.getSort().isSorted()
+							? pageRequest
+							: pageRequest.withSort(Sort.by(Sort.Direction.ASC, "_id")));
+
+					// El conteo usa el mismo filtro que la página; filterKey identifica ese filtro en la caché de conteos
+					Mono<Long> total = withTotal
+							? countCache.count(source, "filas|" + filterKey,
+									() -> mongoTemplate.count(filter != null ? Query.query(filter) : new Query(), source))
+							: null;
+					Flux<R> rows = mongoTemplate.find(query, rowType, mongoTemplate.getCollectionName(source));
+					return toPage(rows, total, pageRequest);
+				});
+	}
+
+	/**
+	 * Arma la página offset. Si total es null no se ejecuta ningún conteo y totalElements queda vacío.
+	 */
+	public static <T> Mono<PagedResponse<T>> toPage(Flux<T> content, Mono<Long> total, PageRequest pageRequest) {
+		int page = pageRequest.getPageNumber();
+		int size = pageRequest.getPageSize();
+
+		if (total == null) {
+			return content.collectList()
+					.map(list -> new PagedResponse<>(list, null, page, size));
+		}
+
+		return Mono.zip(total, content.collectList())
+				.map(tuple -> new PagedResponse<>(
+						tuple.getT2(),
+						tuple.getT1(),
+						page,
+						size
+				));
+	}
+
+	public static boolean isCursorMode(String after) {
+		return after != null;
+	}
+
+	private String idOf(Class<?> type, Object entity) {
+		Object id = mongoTemplate.getConverter().getMappingContext()
+				.getRequiredPersistentEntity(type)
+				.getIdentifierAccessor(entity)
+				.getIdentifier();
+		return id != null ? id.toString() : null;
+	}
+}
@@ -0,0 +1,27 @@
+package com.taup.alimentos_mascotas.Services.Profiles;
+
+import com.taup.alimentos_mascotas.Models.Profiles.User;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Usuarios ya resueltos durante un request. Se guarda en el Context de Reactor (ver CurrentUserWebFilter),
+ * así que vive lo mismo que el request y cada usuario se busca una sola vez aunque varios servicios lo pidan.
+ */
+public final class CurrentUserContext {
+
+	private final Map<String, Mono<User>> users = new ConcurrentHashMap<>();
+
+	public static Context attach(Context context) {
+		return context.hasKey(CurrentUserContext.class) ? context : context.put(CurrentUserContext.class, new CurrentUserContext());
+	}
+
+	Mono<User> resolve(String email, Function<String, Mono<User>> loader) {
+		// cache() comparte el resultado (o el error) con el resto de las llamadas del mismo request
+		return users.computeIfAbsent(email, key -> loader.apply(key).cache());
+	}
+}
@@ -4,57 +4,95 @@ import com.taup.alimentos_mascotas.DTO.PagedResponse;
 import com.taup.alimentos_mascotas.DTO.UserInfo;
 import com.taup.alimentos_mascotas.Models.Profiles.User;
 import com.taup.alimentos_mascotas.Repositories.Devs.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.taup.alimentos_mascotas.Services.Common.PagingService;
+import com.taup.alimentos_mascotas.Utils.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+
 @Service
-@RequiredArgsConstructor
 public class UserService {
 
 	private final UserRepository userRepository;
+	private final PagingService pagingService;
+	// Usuarios por email, de corta duración; cualquier alta, modificación o baja de un usuario la vacía
+	private final TtlCache<String, User> users;
 
-	public Mono<PagedResponse<UserInfo>> getUsersPaged(int page, int size, String keyword) {
-		PageRequest pageRequest = PageRequest.of(page, size);
+	public UserService(UserRepository userRepository, PagingService pagingService,
+	                   @Value("${users.cache.ttl-seconds:30}") long ttlSeconds,
+	                   @Value("${users.cache.max-entries:1000}") int maxEntries) {
+		this.userRepository = userRepository;
+		this.pagingService = pagingService;
+		this.users = new TtlCache<>(Duration.ofSeconds(ttlSeconds), maxEntries);
+	}
 
-		if (keyword != null && !keyword.isEmpty()) {
-			Mono<Long> totalElementsMono = userRepository.countByKeyword(keyword);
-			Flux<UserInfo> userFlux = userRepository.findByKeywordPaged(keyword, pageRequest)
-					.map(UserInfo::new);
+	public Mono<PagedResponse<UserInfo>> getUsersPaged(int page, int size, String keyword, String after, boolean withTotal) {
+		Criteria filter = (keyword != null && !keyword.isEmpty())
+				? new Criteria().orOperator(
+						Criteria.where("name").regex(keyword, "i"),
+						Criteria.where("surname").regex(keyword, "i"))
+				: null;
 
-			return Mono.zip(totalElementsMono, userFlux.collectList())
-					.map(tuple -> new PagedResponse<>(
-							tuple.getT2(), // Lista de usuarios filtrados
-							tuple.getT1(), // Total de registros filtrados
-							page,
-							size));
+		if (PagingService.isCursorMode(after)) {
+			return pagingService.findPageAfter(User.class, filter, after, size)
+					.map(pageResponse -> pageResponse.map(UserInfo::new));
 		}
 
-		Mono<Long> totalElementsMono = userRepository.count();
-		Flux<UserInfo> userFlux = userRepository.findUsersPaged(pageRequest)
-				.map(UserInfo::new);
-
-		return Mono.zip(totalElementsMono, userFlux.collectList())
-				.map(tuple -> new PagedResponse<>(
-						tuple.getT2(),
-						tuple.getT1(), // Total de registros
-						page,
-						size));
+		return pagingService.findPage(User.class, filter, keyword, PageRequest.of(page, size), withTotal)
+				.map(pageResponse -> pageResponse.map(UserInfo::new));
 	}
 
 	public Mono<UserInfo> findById(String id) {
 		return userRepository.findById(id).map(UserInfo::new);
 	}
 
+	/**
+	 * Usuario por email para auditoría y permisos. Dentro de un request se resuelve una sola vez (CurrentUserContext)
+	 * y entre requests sale de la caché mientras no venza. El usuario devuelto es compartido: solo lectura.
+	 */
 	public Mono<User> getFullName(String email) {
-		return userRepository.findByEmail(email)
-				.switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND,
-						"No se encontró el usuario: " + email)))
-				.map(user -> user);
+		return Mono.deferContextual(context -> context.<CurrentUserContext>getOrEmpty(CurrentUserContext.class)
+				.map(current -> current.resolve(email, this::lookupUser))
+				.orElseGet(() -> lookupUser(email)));
+	}
+
+	@EventListener
+	public void onAfterSave(AfterSaveEvent<?> event) {
+		if (event.getSource() instanceof User) {
+			// El email es la clave y puede haber cambiado: se vacía todo, los usuarios se modifican poco
+			users.invalidateAll();
+		}
+	}
+
+	@EventListener
+	public void onAfterDelete(AfterDeleteEvent<?> event) {
+		if (User.class.equals(event.getType())) {
+			users.invalidateAll();
+		}
+	}
+
+	// ? Metodos locales
+
+	private Mono<User> lookupUser(String email) {
+		return Mono.defer(() -> {
+			User cached = users.get(email);
+			if (cached != null) {
+				return Mono.just(cached);
+			}
+			return userRepository.findByEmail(email)
+					.switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND,
+							"No se encontró el usuario: " + email)))
+					.doOnNext(user -> users.put(email, user));
+		});
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.taup.alimentos_mascotas.Utils;
+
+import com.taup.alimentos_mascotas.DTO.PagedResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Respuestas con ETag / Last-Modified para GET condicionales.
+ * Spring compara If-None-Match / If-Modified-Since al procesar el ResponseEntity y responde 304
+ * sin serializar el cuerpo cuando el recurso no cambió.
+ */
+public final class HttpCaching {
+
+	// Los clientes guardan la respuesta pero la revalidan en cada uso
+	public static final CacheControl REVALIDATE = CacheControl.noCache();
+	public static final CacheControl REVALIDATE_PUBLIC = CacheControl.noCache().cachePublic();
+
+	private HttpCaching() {
+	}
+
+	/**
+	 * ETag fuerte de un documento a partir de su id y su fecha de modificación.
+	 */
+	public static String etagOf(String id, LocalDateTime updatedAt) {
+		return "\"" + id + "-" + toEpochMilli(updatedAt) + "\"";
+	}
+
+	public static <T> ResponseEntity<T> ok(T body, String id, LocalDateTime updatedAt, CacheControl cacheControl) {
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+				.eTag(etagOf(id, updatedAt))
+				.cacheControl(cacheControl);
+		if (updatedAt != null) {
+			builder.lastModified(updatedAt.atZone(ZoneId.systemDefault()));
+		}
+		return builder.body(body);
+	}
+
+	public static <T> ResponseEntity<List<T>> okList(List<T> items, Function<T, String> idOf,
+	                                                 Function<T, LocalDateTime> updatedAtOf, CacheControl cacheControl) {
+		return okWithListTag(items, "", items, idOf, updatedAtOf, cacheControl);
+	}
+
+	/**
+	 * ETag de página: hash de los ETags de los elementos junto con los datos de paginación.
+	 */
+	public static <T> ResponseEntity<PagedResponse<T>> okPage(PagedResponse<T> page, Function<T, String> idOf,
+	                                                          Function<T, LocalDateTime> updatedAtOf, CacheControl cacheControl) {
+		String scope = page.getPage() + "|" + page.getSize() + "|" + page.getTotalElements() + "|" + page.getNextCursor();
+		return okWithListTag(page, scope, page.getContent(), idOf, updatedAtOf, cacheControl);
+	}
+
+	// ? Metodos locales
+
+	private static <B, T> ResponseEntity<B> okWithListTag(B body, String scope, List<T> items, Function<T, String> idOf,
+	                                                      Function<T, LocalDateTime> updatedAtOf, CacheControl cacheControl) {
+		StringBuilder source = new StringBuilder(scope);
+		for (T item : items) {
+			source.append('|').append(etagOf(idOf.apply(item), updatedAtOf.apply(item)));
+		}
+
+		// Sin Last-Modified: una baja no cambia la fecha máxima de la lista, pero sí el ETag
+		String etag = "\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+		return ResponseEntity.ok()
+				.eTag(etag)
+				.cacheControl(cacheControl)
+				.body(body);
+	}
+
+	private static long toEpochMilli(LocalDateTime dateTime) {
+		return Objects.isNull(dateTime) ? 0L : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+}
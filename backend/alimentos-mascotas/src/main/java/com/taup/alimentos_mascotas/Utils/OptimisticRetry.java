@@ -0,0 +1,37 @@
+package com.taup.alimentos_mascotas.Utils;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.time.Duration;
+
+/**
+ * Reintento acotado para operaciones leer-modificar-escribir con control de versión.
+ * El Mono reintentado debe incluir la lectura del documento para que cada intento parta de la versión vigente.
+ */
+public final class OptimisticRetry {
+
+	private static final int MAX_ATTEMPTS = 3;
+	private static final Duration FIRST_BACKOFF = Duration.ofMillis(20);
+
+	private OptimisticRetry() {
+	}
+
+	public static RetryBackoffSpec onConflict() {
+		return Retry.backoff(MAX_ATTEMPTS, FIRST_BACKOFF)
+				.filter(OptimisticLockingFailureException.class::isInstance)
+				.onRetryExhaustedThrow((spec, signal) -> new ResponseStatusException(HttpStatus.CONFLICT,
+						"El documento fue modificado por otro usuario, vuelva a intentarlo.", signal.failure()));
+	}
+
+	/**
+	 * Error a emitir cuando un update condicionado por versión no encontró el documento esperado.
+	 */
+	public static OptimisticLockingFailureException conflict(Class<?> type, String id) {
+		return new OptimisticLockingFailureException(
+				"El documento " + type.getSimpleName() + " con ID " + id + " cambió de versión");
+	}
+}
@@ -1,18 +1,25 @@
 package com.taup.alimentos_mascotas.Utils;
 
 public enum Priority {
-	HIGH("Alta"),
-	MEDIUM("Media"),
-	LOW("Baja");
+	HIGH("Alta", 3),
+	MEDIUM("Media", 2),
+	LOW("Baja", 1);
 
 	private final String description;
+	// Orden de urgencia para ordenar en la base: el nombre del enum ordena alfabéticamente (HIGH < LOW < MEDIUM)
+	private final int rank;
 
-	Priority(String description) {
+	Priority(String description, int rank) {
 		this.description = description;
+		this.rank = rank;
 	}
 
 	public String getDescription() {
 		return description;
 	}
+
+	public int getRank() {
+		return rank;
+	}
 }
 
@@ -0,0 +1,122 @@
+package com.taup.alimentos_mascotas.Utils;
+
+import org.bson.types.Decimal128;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Escalado de recetas (Recipe.ingredientsWithQuantity) sin estado ni acceso a datos.
+ * Las cantidades resultantes tienen escala fija QUANTITY_SCALE con redondeo HALF_UP,
+ * y el factor de escala se calcula una sola vez con MathContext.DECIMAL64, así que
+ * divisiones como 1/3 no lanzan ArithmeticException.
+ */
+public final class RecipeScaler {
+
+	public static final int QUANTITY_SCALE = 4;
+	public static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
+
+	private RecipeScaler() {
+	}
+
+	/**
+	 * Factor por el que se multiplica cada ingrediente: cantidad a producir / porciones de la receta.
+	 */
+	public static BigDecimal scaleFactor(Number quantityToProduce, Number servings) {
+		BigDecimal servingsValue = toBigDecimal(servings);
+		if (servingsValue == null || servingsValue.signum() <= 0) {
+			throw new IllegalArgumentException("La receta no tiene porciones estimadas válidas");
+		}
+		BigDecimal quantity = toBigDecimal(quantityToProduce);
+		if (quantity == null || quantity.signum() < 0) {
+			throw new IllegalArgumentException("La cantidad a producir no es válida");
+		}
+		return quantity.divide(servingsValue, MathContext.DECIMAL64);
+	}
+
+	public static Map<String, Number> scale(Map<String, Number> ingredientsWithQuantity, Number quantityToProduce, Number servings) {
+		return scale(ingredientsWithQuantity, scaleFactor(quantityToProduce, servings));
+	}
+
+	/**
+	 * Multiplica cada cantidad por el factor; los ingredientes sin cantidad se omiten.
+	 */
+	public static Map<String, Number> scale(Map<String, Number> ingredientsWithQuantity, BigDecimal factor) {
+		Map<String, Number> scaled = new HashMap<>(capacityFor(ingredientsWithQuantity.size()));
+
+		for (Map.Entry<String, Number> entry : ingredientsWithQuantity.entrySet()) {
+			BigDecimal quantity = toBigDecimal(entry.getValue());
+			if (quantity != null) {
+				scaled.put(entry.getKey(), quantity.multiply(factor).setScale(QUANTITY_SCALE, ROUNDING));
+			}
+		}
+		return scaled;
+	}
+
+	/**
+	 * Diferencia usado - estimado para cada ingrediente estimado (los no usados cuentan como 0).
+	 */
+	public static Map<String, Number> differences(Map<String, Number> estimated, Map<String, Number> used) {
+		Map<String, Number> differences = new HashMap<>(capacityFor(estimated.size()));
+
+		for (Map.Entry<String, Number> entry : estimated.entrySet()) {
+			BigDecimal estimatedQuantity = orZero(toBigDecimal(entry.getValue()));
+			BigDecimal usedQuantity = used != null ? orZero(toBigDecimal(used.get(entry.getKey()))) : BigDecimal.ZERO;
+
+			differences.put(entry.getKey(), usedQuantity.subtract(estimatedQuantity).setScale(QUANTITY_SCALE, ROUNDING));
+		}
+		return differences;
+	}
+
+	/**
+	 * Convierte sin pasar por String en los tipos que guarda Mongo (Integer, Long, Double, Decimal128 -> BigDecimal).
+	 */
+	public static BigDecimal toBigDecimal(Number value) {
+		if (value == null) {
+			return null;
+		}
+		if (value instanceof BigDecimal decimal) {
+			return decimal;
+		}
+		if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+			return BigDecimal.valueOf(value.longValue());
+		}
+		if (value instanceof Double || value instanceof Float) {
+			double number = value.doubleValue();
+			if (!Double.isFinite(number)) {
+				throw new IllegalArgumentException("Cantidad no numérica: " + number);
+			}
+			// valueOf usa la representación decimal más corta: 0.1 queda 0.1 y no 0.1000000000000000055...
+			return BigDecimal.valueOf(number);
+		}
+		if (value instanceof Decimal128 decimal) {
+			if (decimal.isNaN() || decimal.isInfinite()) {
+				throw new IllegalArgumentException("Cantidad no numérica: " + decimal);
+			}
+			try {
+				return decimal.bigDecimalValue();
+			} catch (ArithmeticException e) {
+				// El único valor finito sin BigDecimal es el cero negativo
+				return BigDecimal.ZERO;
+			}
+		}
+		if (value instanceof BigInteger integer) {
+			return new BigDecimal(integer);
+		}
+		return new BigDecimal(value.toString());
+	}
+
+	// ? Metodos locales
+
+	private static BigDecimal orZero(BigDecimal value) {
+		return value != null ? value : BigDecimal.ZERO;
+	}
+
+	private static int capacityFor(int size) {
+		return (int) (size / 0.75f) + 1;
+	}
+}
@@ -0,0 +1,69 @@
+package com.taup.alimentos_mascotas.Utils;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalización de texto para la búsqueda de productos.
+ * Quita acentos y mayúsculas ("Alimentó" -> "alimento") y genera los prefijos de cada palabra,
+ * que se guardan en el documento y se consultan con un índice multikey (búsqueda por tipeo).
+ */
+public final class SearchText {
+
+	public static final int MIN_TOKEN_LENGTH = 2;
+	private static final int MAX_TOKEN_LENGTH = 30;
+
+	private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	private SearchText() {
+	}
+
+	public static String fold(String text) {
+		if (text == null) {
+			return "";
+		}
+		String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+		return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Palabras normalizadas y sin repetir, descartando las de menos de MIN_TOKEN_LENGTH caracteres.
+	 */
+	public static List<String> tokens(String text) {
+		Set<String> tokens = new LinkedHashSet<>();
+		for (String token : SEPARATORS.split(fold(text))) {
+			if (token.length() >= MIN_TOKEN_LENGTH) {
+				tokens.add(token.length() > MAX_TOKEN_LENGTH ? token.substring(0, MAX_TOKEN_LENGTH) : token);
+			}
+		}
+		return List.copyOf(tokens);
+	}
+
+	/**
+	 * Texto de búsqueda escrito pero sin ninguna palabra utilizable (ej: "a" o "-"):
+	 * no debe tratarse como búsqueda vacía, porque devolvería todo el catálogo.
+	 */
+	public static boolean hasNoTerms(String text) {
+		return text != null && !text.isBlank() && tokens(text).isEmpty();
+	}
+
+	/**
+	 * Todos los prefijos (desde MIN_TOKEN_LENGTH caracteres) de las palabras de los textos recibidos.
+	 */
+	public static Set<String> prefixes(String... texts) {
+		Set<String> prefixes = new LinkedHashSet<>();
+		for (String text : texts) {
+			for (String token : tokens(text)) {
+				for (int end = MIN_TOKEN_LENGTH; end <= token.length(); end++) {
+					prefixes.add(token.substring(0, end));
+				}
+			}
+		}
+		return prefixes;
+	}
+}
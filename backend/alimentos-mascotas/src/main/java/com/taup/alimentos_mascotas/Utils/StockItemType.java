@@ -0,0 +1,16 @@
+package com.taup.alimentos_mascotas.Utils;
+
+public enum StockItemType {
+	INGREDIENT("Ingrediente"),
+	PRODUCT("Producto");
+
+	private final String description;
+
+	StockItemType(String description) {
+		this.description = description;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+}
@@ -0,0 +1,70 @@
+package com.taup.alimentos_mascotas.Utils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Cache en memoria con vencimiento por tiempo y cantidad máxima de entradas.
+ * Al llenarse se descartan primero las entradas vencidas y, si no alcanza, se vacía.
+ */
+public class TtlCache<K, V> {
+
+	private record Entry<V>(V value, long expiresAt) {}
+
+	private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+	private final long ttlMillis;
+	private final int maxSize;
+
+	public TtlCache(Duration ttl, int maxSize) {
+		this.ttlMillis = ttl.toMillis();
+		this.maxSize = maxSize;
+	}
+
+	public V get(K key) {
+		Entry<V> entry = entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.expiresAt() < System.currentTimeMillis()) {
+			entries.remove(key, entry);
+			return null;
+		}
+		return entry.value();
+	}
+
+	public void put(K key, V value) {
+		put(key, value, ttlMillis);
+	}
+
+	public void put(K key, V value, long ttlMillis) {
+		if (ttlMillis <= 0) {
+			return;
+		}
+		if (entries.size() >= maxSize) {
+			long now = System.currentTimeMillis();
+			entries.values().removeIf(entry -> entry.expiresAt() < now);
+			if (entries.size() >= maxSize) {
+				entries.clear();
+			}
+		}
+		entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+	}
+
+	public void invalidate(K key) {
+		entries.remove(key);
+	}
+
+	public void invalidateIf(Predicate<K> condition) {
+		entries.keySet().removeIf(condition);
+	}
+
+	public void invalidateAll() {
+		entries.clear();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+}
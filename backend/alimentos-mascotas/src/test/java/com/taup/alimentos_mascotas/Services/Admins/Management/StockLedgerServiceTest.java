@@ -0,0 +1,208 @@
+package com.taup.alimentos_mascotas.Services.Admins.Management;
+
+import com.mongodb.client.result.UpdateResult;
+import com.taup.alimentos_mascotas.Models.Admins.Management.Ingredient;
+import com.taup.alimentos_mascotas.Models.Admins.Management.Product;
+import com.taup.alimentos_mascotas.Models.Admins.Management.StockMovement;
+import com.taup.alimentos_mascotas.Models.Admins.Management.StockSnapshot;
+import com.taup.alimentos_mascotas.Models.Admins.Management.WorkOrder;
+import com.taup.alimentos_mascotas.Repositories.Admins.Management.StockMovementRepository;
+import com.taup.alimentos_mascotas.Repositories.Admins.Management.StockSnapshotRepository;
+import com.taup.alimentos_mascotas.Utils.StockItemType;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockLedgerServiceTest {
+
+	private StockMovementRepository movementRepo;
+	private StockSnapshotRepository snapshotRepo;
+	private ReactiveMongoTemplate mongoTemplate;
+	private StockLedgerService ledger;
+
+	private ReactiveBulkOperations movementOps;
+	private ReactiveBulkOperations ingredientOps;
+	private ReactiveBulkOperations productOps;
+
+	@BeforeEach
+	void setUp() {
+		movementRepo = mock(StockMovementRepository.class);
+		snapshotRepo = mock(StockSnapshotRepository.class);
+		mongoTemplate = mock(ReactiveMongoTemplate.class);
+		ledger = new StockLedgerService(movementRepo, snapshotRepo, mongoTemplate);
+
+		movementOps = bulkOps(StockMovement.class);
+		ingredientOps = bulkOps(Ingredient.class);
+		productOps = bulkOps(Product.class);
+		when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), any(Class.class)))
+				.thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+	}
+
+	@Test
+	void workOrderCompletionCostsAFixedNumberOfRoundTrips() {
+		Map<String, Number> used = new LinkedHashMap<>();
+		for (int i = 0; i < 30; i++) {
+			used.put("ing-" + i, 2);
+		}
+		WorkOrder workOrder = new WorkOrder();
+		workOrder.setId("wo-1");
+		workOrder.setProductId("prod-1");
+		workOrder.setUsedIngredients(used);
+		workOrder.setCompletedQuantity(10);
+		when(mongoTemplate.find(any(Query.class), eq(StockMovement.class)))
+				.thenAnswer(invocation -> Flux.fromIterable(savedCopies(used, workOrder)));
+
+		StepVerifier.create(ledger.recordWorkOrderCompletion(workOrder)).verifyComplete();
+
+		// Un bulk de inserción, una consulta de pendientes, un bulk por colección de items
+		// y los updateMulti de aplicado y de marcas: no depende de la cantidad de ingredientes
+		verify(movementOps).insert(anyList());
+		verify(mongoTemplate, times(1)).find(any(Query.class), eq(StockMovement.class));
+		verify(ingredientOps, times(30)).updateOne(any(Query.class), any(Update.class));
+		verify(productOps, times(1)).updateOne(any(Query.class), any(Update.class));
+		verify(ingredientOps).execute();
+		verify(productOps).execute();
+		verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(StockMovement.class));
+		verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(Ingredient.class));
+		verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(Product.class));
+	}
+
+	@Test
+	void recordIgnoresMovementsInsertedByAnEarlierAttempt() {
+		when(movementOps.execute()).thenReturn(Mono.error(new DuplicateKeyException("E11000")));
+		StockMovement pending = saved("mov-1", StockItemType.INGREDIENT, "ing-1", "-2",
+				StockLedgerService.MANUAL_ADJUSTMENT, "ref-1");
+		when(mongoTemplate.find(any(Query.class), eq(StockMovement.class))).thenReturn(Flux.just(pending));
+
+		StepVerifier.create(ledger.record(List.of(saved(null, StockItemType.INGREDIENT, "ing-1", "-2",
+						StockLedgerService.MANUAL_ADJUSTMENT, "ref-1"))))
+				.verifyComplete();
+
+		verify(ingredientOps).updateOne(any(Query.class), any(Update.class));
+	}
+
+	@Test
+	void recordDoesNotReapplyMovementsAlreadyApplied() {
+		when(mongoTemplate.find(any(Query.class), eq(StockMovement.class))).thenReturn(Flux.empty());
+
+		StepVerifier.create(ledger.record(List.of(saved(null, StockItemType.PRODUCT, "prod-1", "5",
+						StockLedgerService.MANUAL_ADJUSTMENT, "ref-1"))))
+				.verifyComplete();
+
+		verify(productOps, times(0)).updateOne(any(Query.class), any(Update.class));
+		verify(mongoTemplate, times(0)).updateMulti(any(Query.class), any(Update.class), eq(StockMovement.class));
+	}
+
+	@Test
+	void balanceAsOfReplaysFromTheLatestSnapshot() {
+		LocalDateTime takenAt = LocalDateTime.of(2026, 1, 1, 3, 0);
+		LocalDateTime asOf = takenAt.plusDays(2);
+		StockSnapshot snapshot = new StockSnapshot();
+		snapshot.setBalance(new BigDecimal("100"));
+		snapshot.setTakenAt(takenAt);
+		when(snapshotRepo.findFirstByItemTypeAndItemIdAndTakenAtLessThanEqualOrderByTakenAtDesc(StockItemType.INGREDIENT, "ing-1", asOf))
+				.thenReturn(Mono.just(snapshot));
+		when(movementRepo.sumQuantityBetween("INGREDIENT", "ing-1", takenAt, asOf))
+				.thenReturn(Mono.just(new Decimal128(new BigDecimal("-12.5"))));
+
+		StepVerifier.create(ledger.balanceAsOf(StockItemType.INGREDIENT, "ing-1", asOf))
+				.expectNextMatches(balance -> balance.compareTo(new BigDecimal("87.5")) == 0)
+				.verifyComplete();
+	}
+
+	@Test
+	void balanceAsOfWithoutSnapshotKeepsStockFromBeforeTheLedger() {
+		// Stock actual 80: 100 anteriores al libro y un consumo aplicado de 20
+		LocalDateTime asOf = LocalDateTime.now();
+		when(snapshotRepo.findFirstByItemTypeAndItemIdAndTakenAtLessThanEqualOrderByTakenAtDesc(StockItemType.INGREDIENT, "ing-1", asOf))
+				.thenReturn(Mono.empty());
+		when(mongoTemplate.getCollectionName(Ingredient.class)).thenReturn("ingredients");
+		when(mongoTemplate.findOne(any(Query.class), eq(Document.class), eq("ingredients")))
+				.thenReturn(Mono.just(new Document("_id", "ing-1").append("stock", new Decimal128(new BigDecimal("80")))));
+		when(movementRepo.sumAppliedQuantity("INGREDIENT", "ing-1"))
+				.thenReturn(Mono.just(new Decimal128(new BigDecimal("-20"))));
+		when(movementRepo.sumQuantityBetween(eq("INGREDIENT"), eq("ing-1"), any(LocalDateTime.class), eq(asOf)))
+				.thenReturn(Mono.just(new Decimal128(new BigDecimal("-20"))));
+
+		StepVerifier.create(ledger.balanceAsOf(StockItemType.INGREDIENT, "ing-1", asOf))
+				.expectNextMatches(balance -> balance.compareTo(new BigDecimal("80")) == 0)
+				.verifyComplete();
+	}
+
+	@Test
+	void reconcileAppliesPendingMovementsInOneBatch() {
+		List<StockMovement> pending = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			pending.add(saved("mov-" + i, StockItemType.INGREDIENT, "ing-" + i, "-1",
+					StockLedgerService.WORK_ORDER_CONSUMPTION, "wo-1"));
+		}
+		when(mongoTemplate.find(any(Query.class), eq(StockMovement.class))).thenReturn(Flux.fromIterable(pending));
+		when(mongoTemplate.getCollectionName(any(Class.class))).thenReturn("items");
+		when(mongoTemplate.find(any(Query.class), eq(Document.class), anyString())).thenReturn(Flux.empty());
+
+		StepVerifier.create(ledger.reconcile())
+				.expectNext(3L)
+				.verifyComplete();
+
+		verify(ingredientOps, times(3)).updateOne(any(Query.class), any(Update.class));
+		verify(ingredientOps, times(1)).execute();
+	}
+
+	// ? Metodos locales
+
+	private ReactiveBulkOperations bulkOps(Class<?> type) {
+		ReactiveBulkOperations ops = mock(ReactiveBulkOperations.class, RETURNS_SELF);
+		when(ops.execute()).thenReturn(Mono.empty());
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type)).thenReturn(ops);
+		return ops;
+	}
+
+	private List<StockMovement> savedCopies(Map<String, Number> used, WorkOrder workOrder) {
+		List<StockMovement> saved = new ArrayList<>();
+		used.forEach((ingredientId, quantity) -> saved.add(saved("mov-" + ingredientId, StockItemType.INGREDIENT, ingredientId,
+				"-" + quantity, StockLedgerService.WORK_ORDER_CONSUMPTION, workOrder.getId())));
+		saved.add(saved("mov-" + workOrder.getProductId(), StockItemType.PRODUCT, workOrder.getProductId(),
+				workOrder.getCompletedQuantity().toString(), StockLedgerService.WORK_ORDER_PRODUCTION, workOrder.getId()));
+		return saved;
+	}
+
+	private StockMovement saved(String id, StockItemType itemType, String itemId, String quantity, String reason, String referenceId) {
+		StockMovement movement = new StockMovement();
+		movement.setId(id);
+		movement.setItemType(itemType);
+		movement.setItemId(itemId);
+		movement.setQuantity(new BigDecimal(quantity));
+		movement.setReason(reason);
+		movement.setReferenceId(referenceId);
+		movement.setOccurredAt(LocalDateTime.now());
+		movement.setApplied(false);
+		return movement;
+	}
+}
@@ -0,0 +1,73 @@
+package com.taup.alimentos_mascotas.Utils;
+
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RecipeScalerTest {
+
+	@Test
+	void scaleFactorUsesDecimal64() {
+		assertEquals(new BigDecimal("3.333333333333333"), RecipeScaler.scaleFactor(10, 3));
+		assertEquals(new BigDecimal("2.5"), RecipeScaler.scaleFactor(5, 2));
+	}
+
+	@Test
+	void scaleFactorRejectsInvalidServings() {
+		assertThrows(IllegalArgumentException.class, () -> RecipeScaler.scaleFactor(10, 0));
+		assertThrows(IllegalArgumentException.class, () -> RecipeScaler.scaleFactor(10, null));
+		assertThrows(IllegalArgumentException.class, () -> RecipeScaler.scaleFactor(-1, 3));
+	}
+
+	@Test
+	void scaleRoundsToFourDecimalsHalfUp() {
+		Map<String, Number> ingredients = new HashMap<>();
+		ingredients.put("carne", 100);
+		ingredients.put("sal", 0.1);
+		ingredients.put("aceite", new Decimal128(new BigDecimal("2.5")));
+		ingredients.put("agua", null);
+
+		Map<String, Number> scaled = RecipeScaler.scale(ingredients, 10, 3);
+
+		assertEquals(new BigDecimal("333.3333"), scaled.get("carne"));
+		assertEquals(new BigDecimal("0.3333"), scaled.get("sal"));
+		assertEquals(new BigDecimal("8.3333"), scaled.get("aceite"));
+		assertFalse(scaled.containsKey("agua"));
+	}
+
+	@Test
+	void doublesKeepTheirDecimalRepresentation() {
+		// new BigDecimal(1.00005) es 1.0000499999... y redondearía a 1.0000
+		Map<String, Number> scaled = RecipeScaler.scale(Map.of("sal", 1.00005), BigDecimal.ONE);
+
+		assertEquals(new BigDecimal("1.0001"), scaled.get("sal"));
+		assertEquals(new BigDecimal("0.1"), RecipeScaler.toBigDecimal(0.1));
+		assertEquals(new BigDecimal("0.5"), RecipeScaler.toBigDecimal(0.5f));
+	}
+
+	@Test
+	void decimal128KeepsScale() {
+		assertEquals(new BigDecimal("2.50"), RecipeScaler.toBigDecimal(new Decimal128(new BigDecimal("2.50"))));
+		assertEquals(BigDecimal.ZERO, RecipeScaler.toBigDecimal(Decimal128.NEGATIVE_ZERO));
+		assertThrows(IllegalArgumentException.class, () -> RecipeScaler.toBigDecimal(Decimal128.NaN));
+		assertThrows(IllegalArgumentException.class, () -> RecipeScaler.toBigDecimal(Double.NaN));
+	}
+
+	@Test
+	void differencesCountMissingUsedAsZero() {
+		Map<String, Number> estimated = Map.of("carne", 10, "sal", 0.5);
+		Map<String, Number> used = Map.of("carne", 12.25);
+
+		Map<String, Number> differences = RecipeScaler.differences(estimated, used);
+
+		assertEquals(new BigDecimal("2.2500"), differences.get("carne"));
+		assertEquals(new BigDecimal("-0.5000"), differences.get("sal"));
+	}
+}